@@ -0,0 +1,59 @@
+package com.obs.config;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.dao.DataAccessException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+
+/**
+ * Creates the partial indexes behind the banker pending queue. They only contain PENDING rows,
+ * so the queue stays a small index scan however large the transaction table grows. JPA
+ * {@code @Index} cannot express a WHERE clause, and a Flyway migration runs before Hibernate has
+ * created the table on a fresh database, hence DDL once the application is ready. The indexes are
+ * built CONCURRENTLY so the first start against a large table does not block writes while they
+ * build; a build that was interrupted leaves an invalid index, which is dropped and rebuilt.
+ */
+@Component
+public class PendingQueueIndexInitializer {
+
+    private static final Logger logger = LoggerFactory.getLogger(PendingQueueIndexInitializer.class);
+
+    private static final Map<String, String> INDEXES = new LinkedHashMap<>();
+
+    static {
+        INDEXES.put("idx_txn_pending_age", "(timestamp, id) where status = 'PENDING'");
+        // Pending debits are stored negative, so ascending amount puts the largest transfer first
+        INDEXES.put("idx_txn_pending_size", "(amount, timestamp) where status = 'PENDING'");
+    }
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void createIndexes() {
+        // CONCURRENTLY cannot run inside a transaction; JdbcTemplate statements run in auto-commit
+        INDEXES.forEach((name, definition) -> {
+            try {
+                Boolean valid = jdbcTemplate.query(
+                        "select i.indisvalid from pg_index i join pg_class c on c.oid = i.indexrelid where c.relname = ?",
+                        rs -> rs.next() ? rs.getBoolean(1) : null, name);
+                if (Boolean.TRUE.equals(valid)) {
+                    return;
+                }
+                if (valid != null) {
+                    jdbcTemplate.execute("drop index concurrently if exists " + name);
+                }
+                jdbcTemplate.execute("create index concurrently if not exists " + name + " on transaction " + definition);
+            } catch (DataAccessException e) {
+                logger.warn("Could not create pending queue index {}: {}", name, e.getMessage());
+            }
+        });
+    }
+}
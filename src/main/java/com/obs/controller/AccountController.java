@@ -2,11 +2,9 @@ package com.obs.controller;
 
 import java.math.BigDecimal;
 import java.security.Principal;
-import java.time.LocalDateTime;
 import java.util.List;
 import java.util.Random;
 
-import com.obs.repository.TransactionRepository;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.access.prepost.PreAuthorize;
@@ -16,18 +14,24 @@ import org.springframework.web.bind.annotation.PathVariable;
 import org.springframework.web.bind.annotation.PostMapping;
 import org.springframework.web.bind.annotation.PutMapping;
 import org.springframework.web.bind.annotation.RequestBody;
+import org.springframework.web.bind.annotation.RequestHeader;
 import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
 
 import com.obs.entity.Account;
 import com.obs.entity.AccountType;
-import com.obs.entity.Transaction;
 import com.obs.entity.User;
 import com.obs.payload.response.AccountDetailsResponse;
+import com.obs.payload.response.AccountSummaryResponse;
 import com.obs.payload.response.MessageResponse;
 import com.obs.repository.AccountRepository;
 import com.obs.repository.UserRepository;
+import com.obs.service.AccountDirectory;
+import com.obs.service.AccountSummaryService;
+import com.obs.service.IdempotencyService;
+import com.obs.service.OptimisticRetryTemplate;
+import com.obs.service.TransactionService;
 
 
 @RestController
@@ -41,7 +45,19 @@ public class AccountController {
     UserRepository userRepository;
 
     @Autowired
-    TransactionRepository transactionRepository;
+    IdempotencyService idempotencyService;
+
+    @Autowired
+    TransactionService transactionService;
+
+    @Autowired
+    OptimisticRetryTemplate optimisticRetry;
+
+    @Autowired
+    AccountDirectory accountDirectory;
+
+    @Autowired
+    AccountSummaryService accountSummaryService;
 
     @GetMapping("/my-accounts")
     @PreAuthorize("hasRole('CUSTOMER') or hasRole('BANKER') or hasRole('ADMIN')")
@@ -50,6 +66,12 @@ public class AccountController {
         return accountRepository.findByUser(user);
     }
 
+    @GetMapping("/summary")
+    @PreAuthorize("hasRole('CUSTOMER') or hasRole('BANKER') or hasRole('ADMIN')")
+    public List<AccountSummaryResponse> getAccountSummaries(@RequestParam(defaultValue = "0") int recent, Principal principal) {
+        return accountSummaryService.getSummaries(principal.getName(), recent);
+    }
+
     @PostMapping("/create")
     @PreAuthorize("hasRole('CUSTOMER')")
     public ResponseEntity<?> createAccount(@RequestBody com.obs.payload.request.CreateAccountRequest request, Principal principal) {
@@ -79,13 +101,14 @@ public class AccountController {
     @GetMapping("/search")
     @PreAuthorize("hasRole('BANKER')")
     public ResponseEntity<?> searchAccount(@RequestParam String accountNumber) {
-        Account account = accountRepository.findByAccountNumber(accountNumber)
+        Account account = accountRepository.findWithUserByAccountNumber(accountNumber)
                 .orElseThrow(() -> new com.obs.exception.ResourceNotFoundException("Account not found"));
 
         AccountDetailsResponse response = new AccountDetailsResponse(
                 account.getId(),
                 account.getAccountNumber(),
                 account.getBalance(),
+                transactionService.getAvailableBalance(account),
                 account.isActive(),
                 account.getUser().getUsername(),
                 account.getUser().getId(),
@@ -103,39 +126,26 @@ public class AccountController {
 
         account.setActive(!account.isActive());
         accountRepository.save(account);
+        accountDirectory.invalidate(accountNumber);
 
         return ResponseEntity.ok(new MessageResponse("Account status updated to " + (account.isActive() ? "Active" : "Frozen")));
     }
 
     @PostMapping("/deposit")
     @PreAuthorize("hasRole('BANKER')")
-    public ResponseEntity<?> deposit(@RequestBody java.util.Map<String, Object> request) {
+    public ResponseEntity<?> deposit(@RequestBody java.util.Map<String, Object> request,
+                                     @RequestHeader(value = IdempotencyService.HEADER, required = false) String idempotencyKey,
+                                     Principal principal) {
         String accountNumber = (String) request.get("accountNumber");
         BigDecimal amount = new BigDecimal(request.get("amount").toString());
 
-        Account account = accountRepository.findByAccountNumber(accountNumber)
-                .orElseThrow(() -> new com.obs.exception.ResourceNotFoundException("Account not found"));
-
-        if (!account.isActive()) {
-            return ResponseEntity.badRequest().body(new MessageResponse("Cannot deposit to frozen/inactive account"));
+        try {
+            return idempotencyService.execute(idempotencyKey, principal.getName(), "deposit",
+                    claim -> optimisticRetry.execute(() -> transactionService.deposit(accountNumber, amount, claim)),
+                    (Account account) -> ResponseEntity.ok(new MessageResponse("Signal deposit successful. New balance: " + account.getBalance())));
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().body(new MessageResponse(e.getMessage()));
         }
-
-        account.setBalance(account.getBalance().add(amount));
-        accountRepository.save(account);
-
-        // Record Transaction
-        Transaction transaction = new Transaction();
-        transaction.setAccount(account);
-        transaction.setAmount(amount); // Positive for Credit
-        transaction.setType("CREDIT");
-        transaction.setTimestamp(LocalDateTime.now());
-        transaction.setDescription("Cash Deposit by Banker");
-        transaction.setStatus("SUCCESS");
-        // targetAccountNumber is null for cash deposit
-
-        transactionRepository.save(transaction);
-
-        return ResponseEntity.ok(new MessageResponse("Signal deposit successful. New balance: " + account.getBalance()));
     }
 
     private String generateAccountNumber() {
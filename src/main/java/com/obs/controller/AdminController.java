@@ -19,9 +19,12 @@ import org.springframework.web.bind.annotation.RestController;
 
 import com.obs.entity.Role;
 import com.obs.entity.User;
+import com.obs.exception.ConflictException;
 import com.obs.payload.request.SignupRequest;
 import com.obs.payload.response.MessageResponse;
 import com.obs.repository.UserRepository;
+import com.obs.service.RunningBalanceBackfillService;
+import com.obs.service.StatementPregenerationService;
 
 import jakarta.validation.Valid;
 
@@ -35,6 +38,12 @@ public class AdminController {
     @Autowired
     PasswordEncoder encoder;
 
+    @Autowired
+    RunningBalanceBackfillService runningBalanceBackfillService;
+
+    @Autowired
+    StatementPregenerationService statementPregenerationService;
+
     @PostMapping("/create-banker")
     @PreAuthorize("hasRole('ADMIN')")
     public ResponseEntity<?> createBanker(@Valid @RequestBody SignupRequest signUpRequest) {
@@ -91,5 +100,19 @@ public class AdminController {
         return ResponseEntity.ok(new MessageResponse("User " + (user.isActive() ? "activated" : "deactivated") + " successfully!"));
     }
 
+    @PostMapping("/backfill-running-balances")
+    @PreAuthorize("hasRole('ADMIN')")
+    public ResponseEntity<?> backfillRunningBalances() {
+        int accounts = runningBalanceBackfillService.backfill();
+        return ResponseEntity.ok(new MessageResponse("Running balances backfilled for " + accounts + " accounts"));
+    }
 
+    @PostMapping("/pregenerate-statements")
+    @PreAuthorize("hasRole('ADMIN')")
+    public ResponseEntity<?> pregenerateStatements() {
+        if (!statementPregenerationService.start()) {
+            throw new ConflictException("Statement pre-generation is already running");
+        }
+        return ResponseEntity.accepted().body(new MessageResponse("Statement pre-generation started for last month"));
+    }
 }
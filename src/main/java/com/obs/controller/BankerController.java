@@ -1,13 +1,29 @@
 package com.obs.controller;
 
 import com.obs.entity.Transaction;
+import com.obs.payload.request.BulkDecisionRequest;
+import com.obs.payload.response.BulkDecisionResponse;
+import com.obs.payload.request.TransactionFilter;
 import com.obs.service.TransactionService;
+import com.obs.payload.response.LedgerBalanceResponse;
 import com.obs.payload.response.MessageResponse;
+import com.obs.payload.response.PendingCountResponse;
+import com.obs.payload.response.StatementJobResponse;
+import com.obs.payload.response.TransactionPageResponse;
+import com.obs.service.LedgerService;
+import com.obs.service.OptimisticRetryTemplate;
+import com.obs.service.PendingQueueStream;
+import com.obs.service.StatementJobService;
+import com.obs.service.TransactionExportService;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 import org.springframework.context.annotation.Profile;
 import org.springframework.security.access.prepost.PreAuthorize;
+import jakarta.validation.Valid;
 
 import java.util.List;
 
@@ -18,23 +34,55 @@ public class BankerController {
     @Autowired
     private TransactionService transactionService;
 
+    @Autowired
+    private OptimisticRetryTemplate optimisticRetry;
+
+    @Autowired
+    private PendingQueueStream pendingQueueStream;
+
     @GetMapping("/pending-transactions")
     @PreAuthorize("hasRole('BANKER') or hasRole('ADMIN')")
-    public List<Transaction> getPendingTransactions() {
-        return transactionService.getPendingTransactions();
+    public List<Transaction> getPendingTransactions(@RequestParam(defaultValue = "age") String sort,
+                                                    @RequestParam(defaultValue = "0") int page,
+                                                    @RequestParam(defaultValue = "50") int size) {
+        return transactionService.getPendingTransactions(sort, page, size);
+    }
+
+    @GetMapping("/pending-transactions/count")
+    @PreAuthorize("hasRole('BANKER') or hasRole('ADMIN')")
+    public PendingCountResponse countPendingTransactions() {
+        return transactionService.countPendingTransactions();
+    }
+
+    @GetMapping(value = "/pending-transactions/stream", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    @PreAuthorize("hasRole('BANKER') or hasRole('ADMIN')")
+    public SseEmitter streamPendingTransactions(@RequestHeader(value = "Last-Event-ID", required = false) String lastEventId) {
+        return pendingQueueStream.subscribe(lastEventId);
+    }
+
+    @PutMapping("/transactions/bulk-approve")
+    @PreAuthorize("hasRole('BANKER') or hasRole('ADMIN')")
+    public BulkDecisionResponse bulkApprove(@Valid @RequestBody BulkDecisionRequest bulkRequest) {
+        return optimisticRetry.execute(() -> transactionService.bulkDecide(bulkRequest.getTransactionIds(), true));
+    }
+
+    @PutMapping("/transactions/bulk-reject")
+    @PreAuthorize("hasRole('BANKER') or hasRole('ADMIN')")
+    public BulkDecisionResponse bulkReject(@Valid @RequestBody BulkDecisionRequest bulkRequest) {
+        return optimisticRetry.execute(() -> transactionService.bulkDecide(bulkRequest.getTransactionIds(), false));
     }
 
     @PutMapping("/transactions/{id}/approve")
     @PreAuthorize("hasRole('BANKER') or hasRole('ADMIN')")
     public ResponseEntity<?> approveTransaction(@PathVariable Long id) {
-        transactionService.approveTransaction(id);
+        optimisticRetry.run(() -> transactionService.approveTransaction(id));
         return ResponseEntity.ok(new MessageResponse("Transaction approved successfully"));
     }
 
     @PutMapping("/transactions/{id}/reject")
     @PreAuthorize("hasRole('BANKER') or hasRole('ADMIN')")
     public ResponseEntity<?> rejectTransaction(@PathVariable Long id) {
-        transactionService.rejectTransaction(id);
+        optimisticRetry.run(() -> transactionService.rejectTransaction(id));
         return ResponseEntity.ok(new MessageResponse("Transaction rejected successfully"));
     }
     @Autowired
@@ -43,24 +91,96 @@ public class BankerController {
     @Autowired
     private com.obs.service.PdfGenerationService pdfGenerationService;
 
+    @Autowired
+    private com.obs.service.PdfCache pdfCache;
+
+    @Autowired
+    private StatementJobService statementJobService;
+
+    @Autowired
+    private TransactionExportService transactionExportService;
+
+    /**
+     * Deprecated in favour of {@code /accounts/{accountNumber}/transactions/page}: returns only the
+     * latest {@code obs.app.legacyHistoryLimit} transactions.
+     */
+    @Deprecated
     @GetMapping("/accounts/{accountNumber}/transactions")
     @PreAuthorize("hasRole('BANKER') or hasRole('ADMIN')")
-    public List<Transaction> getAccountTransactions(@PathVariable String accountNumber) {
-        return transactionService.getTransactionsForAccount(accountNumber);
+    public ResponseEntity<List<Transaction>> getAccountTransactions(@PathVariable String accountNumber, TransactionFilter filter) {
+        return ResponseEntity.ok()
+                .header("Deprecation", "true")
+                .header(org.springframework.http.HttpHeaders.LINK,
+                        "</api/banker/accounts/" + accountNumber + "/transactions/page>; rel=\"successor-version\"")
+                .body(transactionService.getTransactionsForAccount(accountNumber, filter));
     }
 
-    @GetMapping("/accounts/{accountNumber}/statement")
+    @GetMapping("/accounts/{accountNumber}/transactions/page")
     @PreAuthorize("hasRole('BANKER') or hasRole('ADMIN')")
-    public ResponseEntity<byte[]> downloadAccountStatement(@PathVariable String accountNumber) {
+    public TransactionPageResponse getAccountTransactionPage(@PathVariable String accountNumber,
+                                                             @RequestParam(required = false) String cursor,
+                                                             @RequestParam(defaultValue = "50") int size,
+                                                             TransactionFilter filter) {
+        return transactionService.getTransactionPageForAccount(accountNumber, filter, cursor, size);
+    }
+
+    @Autowired
+    private LedgerService ledgerService;
+
+    @GetMapping("/accounts/{accountNumber}/ledger-balance")
+    @PreAuthorize("hasRole('BANKER') or hasRole('ADMIN')")
+    public LedgerBalanceResponse getLedgerBalance(@PathVariable String accountNumber) {
         com.obs.entity.Account account = accountRepository.findByAccountNumber(accountNumber)
-                .orElseThrow(() -> new RuntimeException("Account not found"));
-        List<Transaction> transactions = transactionService.getTransactionsForAccount(accountNumber);
-        
-        byte[] pdfBytes = pdfGenerationService.generateAccountStatement(account, transactions);
-        
+                .orElseThrow(() -> new com.obs.exception.ResourceNotFoundException("Account not found"));
+        return new LedgerBalanceResponse(accountNumber, account.getBalance(), ledgerService.getBalance(accountNumber));
+    }
+
+    @GetMapping("/accounts/{accountNumber}/statement")
+    @PreAuthorize("hasRole('BANKER') or hasRole('ADMIN')")
+    public ResponseEntity<StreamingResponseBody> downloadAccountStatement(@PathVariable String accountNumber, TransactionFilter filter,
+                                                                          @RequestHeader(value = org.springframework.http.HttpHeaders.IF_NONE_MATCH, required = false) String ifNoneMatch) {
+        com.obs.entity.Account account = transactionService.getStatementAccount(accountNumber, null, filter);
+        String filename = "statement_" + accountNumber + ".pdf";
+        StreamingResponseBody body = out -> pdfGenerationService.writeAccountStatement(account, filter, out);
+
+        String cacheKey = pdfGenerationService.statementCacheKey(account, filter);
+        if (cacheKey != null) {
+            return pdfCache.serve(cacheKey, ifNoneMatch, filename, body::writeTo);
+        }
         return ResponseEntity.ok()
-                .header(org.springframework.http.HttpHeaders.CONTENT_DISPOSITION, "attachment; filename=statement_" + accountNumber + ".pdf")
+                .header(org.springframework.http.HttpHeaders.CONTENT_DISPOSITION, "attachment; filename=" + filename)
                 .contentType(org.springframework.http.MediaType.APPLICATION_PDF)
-                .body(pdfBytes);
+                .body(body);
+    }
+
+    @GetMapping("/accounts/{accountNumber}/export/csv")
+    @PreAuthorize("hasRole('BANKER') or hasRole('ADMIN')")
+    public ResponseEntity<StreamingResponseBody> exportAccountCsv(@PathVariable String accountNumber, TransactionFilter filter) {
+        com.obs.entity.Account account = transactionService.getStatementAccount(accountNumber, null, filter);
+
+        return ResponseEntity.ok()
+                .header(org.springframework.http.HttpHeaders.CONTENT_DISPOSITION, "attachment; filename=transactions_" + accountNumber + ".csv")
+                .contentType(new MediaType("text", "csv", java.nio.charset.StandardCharsets.UTF_8))
+                .body(out -> transactionExportService.writeCsv(account, filter, out));
+    }
+
+    @GetMapping("/accounts/{accountNumber}/export/ndjson")
+    @PreAuthorize("hasRole('BANKER') or hasRole('ADMIN')")
+    public ResponseEntity<StreamingResponseBody> exportAccountNdjson(@PathVariable String accountNumber, TransactionFilter filter) {
+        com.obs.entity.Account account = transactionService.getStatementAccount(accountNumber, null, filter);
+
+        return ResponseEntity.ok()
+                .header(org.springframework.http.HttpHeaders.CONTENT_DISPOSITION, "attachment; filename=transactions_" + accountNumber + ".ndjson")
+                .contentType(MediaType.APPLICATION_NDJSON)
+                .body(out -> transactionExportService.writeNdjson(account, filter, out));
+    }
+
+    // Poll and download through /api/transactions/statement-jobs/{jobId}
+    @PostMapping("/accounts/{accountNumber}/statement/jobs")
+    @PreAuthorize("hasRole('BANKER') or hasRole('ADMIN')")
+    public ResponseEntity<StatementJobResponse> submitAccountStatement(@PathVariable String accountNumber, TransactionFilter filter,
+                                                                       java.security.Principal principal) {
+        return ResponseEntity.accepted()
+                .body(statementJobService.submit(accountNumber, null, filter, principal.getName()));
     }
 }
@@ -5,6 +5,8 @@ import com.obs.entity.User;
 import com.obs.payload.response.MessageResponse;
 import com.obs.repository.UserRepository;
 import com.obs.service.BillPaymentService;
+import com.obs.service.IdempotencyService;
+import com.obs.service.OptimisticRetryTemplate;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.access.prepost.PreAuthorize;
@@ -24,15 +26,26 @@ public class BillPaymentController {
     @Autowired
     private UserRepository userRepository;
 
+    @Autowired
+    private IdempotencyService idempotencyService;
+
+    @Autowired
+    private OptimisticRetryTemplate optimisticRetry;
+
     @PostMapping("/pay")
     @PreAuthorize("hasRole('CUSTOMER')")
     public ResponseEntity<?> payBill(@RequestParam String accountNumber, 
                                      @RequestParam String billerName, 
                                      @RequestParam BigDecimal amount, 
+                                     @RequestHeader(value = IdempotencyService.HEADER, required = false) String idempotencyKey,
                                      Principal principal) {
         User user = userRepository.findByUsername(principal.getName()).get();
-        billPaymentService.payBill(user.getId(), accountNumber, billerName, amount);
-        return ResponseEntity.ok(new MessageResponse("Bill paid successfully!"));
+        return idempotencyService.execute(idempotencyKey, principal.getName(), "bill-payment",
+                claim -> {
+                    optimisticRetry.run(() -> billPaymentService.payBill(user.getId(), accountNumber, billerName, amount, claim));
+                    return null;
+                },
+                result -> ResponseEntity.ok(new MessageResponse("Bill paid successfully!")));
     }
 
     @GetMapping("/my-bills")
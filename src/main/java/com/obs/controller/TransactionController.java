@@ -12,13 +12,30 @@ import org.springframework.web.bind.annotation.PathVariable;
 import org.springframework.web.bind.annotation.PostMapping;
 import org.springframework.web.bind.annotation.PutMapping;
 import org.springframework.web.bind.annotation.RequestBody;
+import org.springframework.web.bind.annotation.RequestHeader;
 import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.context.request.async.DeferredResult;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
 import com.obs.entity.Transaction;
+import com.obs.payload.request.BulkTransferRequest;
+import com.obs.payload.request.TransactionFilter;
 import com.obs.payload.request.TransferRequest;
+import com.obs.payload.response.BulkTransferResponse;
 import com.obs.payload.response.MessageResponse;
+import com.obs.payload.response.PendingCountResponse;
+import com.obs.payload.response.StatementJobResponse;
+import com.obs.payload.response.TransactionPageResponse;
+import com.obs.payload.response.TransferStatusResponse;
+import com.obs.service.AsyncTransferService;
+import com.obs.service.IdempotencyService;
+import com.obs.service.OptimisticRetryTemplate;
+import com.obs.service.StatementJobService;
+import com.obs.service.TransactionExportService;
 import com.obs.service.TransactionService;
+import com.obs.service.TransferDispatcher;
 
 import jakarta.validation.Valid;
 
@@ -29,76 +46,225 @@ public class TransactionController {
     @Autowired
     private TransactionService transactionService;
 
+    @Autowired
+    private TransferDispatcher transferDispatcher;
+
+    @Autowired
+    private IdempotencyService idempotencyService;
+
+    @Autowired
+    private AsyncTransferService asyncTransferService;
+
+    @Autowired
+    private OptimisticRetryTemplate optimisticRetry;
+
+    @Autowired
+    private StatementJobService statementJobService;
+
+    @Autowired
+    private TransactionExportService transactionExportService;
+
     @PostMapping("/transfer")
     @PreAuthorize("hasRole('CUSTOMER') or hasRole('BANKER')")
-    public ResponseEntity<?> transferFunds(@Valid @RequestBody TransferRequest transferRequest, Principal principal) {
-        String status = transactionService.transferFunds(transferRequest, principal.getName());
+    public ResponseEntity<?> transferFunds(@Valid @RequestBody TransferRequest transferRequest,
+                                           @RequestHeader(value = IdempotencyService.HEADER, required = false) String idempotencyKey,
+                                           Principal principal) {
+        return idempotencyService.execute(idempotencyKey, principal.getName(), "transfer",
+                claim -> transferDispatcher.dispatch(transferRequest, principal.getName(), claim),
+                status -> {
+                    if ("PENDING".equals(status)) {
+                        return ResponseEntity.ok(new MessageResponse("Transfer successful! However, due to the large amount, it is PENDING approval from a Banker."));
+                    } else {
+                        return ResponseEntity.ok(new MessageResponse("Transfer successful!"));
+                    }
+                });
+    }
+    
+    @PostMapping("/transfer/async")
+    @PreAuthorize("hasRole('CUSTOMER') or hasRole('BANKER')")
+    public ResponseEntity<?> submitTransfer(@Valid @RequestBody TransferRequest transferRequest,
+                                            @RequestHeader(value = IdempotencyService.HEADER, required = false) String idempotencyKey,
+                                            Principal principal) {
+        return idempotencyService.execute(idempotencyKey, principal.getName(), "transfer-async",
+                claim -> asyncTransferService.submit(transferRequest, principal.getName(), claim),
+                accepted -> ResponseEntity.accepted().body(accepted));
+    }
+
+    @GetMapping("/transfers/{transferId}")
+    @PreAuthorize("hasRole('CUSTOMER') or hasRole('BANKER')")
+    public TransferStatusResponse getTransferStatus(@PathVariable String transferId, Principal principal) {
+        return asyncTransferService.getStatus(transferId, principal.getName());
+    }
+
+    // Long poll: answers as soon as the transfer finishes, or with the current status after the timeout
+    @GetMapping("/transfers/{transferId}/result")
+    @PreAuthorize("hasRole('CUSTOMER') or hasRole('BANKER')")
+    public DeferredResult<TransferStatusResponse> awaitTransfer(@PathVariable String transferId,
+                                                                @RequestParam(defaultValue = "30000") long timeoutMs,
+                                                                Principal principal) {
+        String username = principal.getName();
+        long timeout = Math.min(Math.max(timeoutMs, 1000), 60000);
+        DeferredResult<TransferStatusResponse> deferred = new DeferredResult<>(timeout,
+                () -> asyncTransferService.getStatus(transferId, username));
+        asyncTransferService.whenDone(transferId, username).thenAccept(deferred::setResult);
+        return deferred;
+    }
+
+    @PostMapping("/bulk-transfer")
+    @PreAuthorize("hasRole('CUSTOMER') or hasRole('BANKER')")
+    public ResponseEntity<BulkTransferResponse> bulkTransfer(@Valid @RequestBody BulkTransferRequest bulkRequest, Principal principal) {
+        BulkTransferResponse response = transactionService.bulkTransfer(bulkRequest, principal.getName());
 
-        if ("PENDING".equals(status)) {
-            return ResponseEntity.ok(new MessageResponse("Transfer successful! However, due to the large amount, it is PENDING approval from a Banker."));
-        } else {
-            return ResponseEntity.ok(new MessageResponse("Transfer successful!"));
+        if (!response.isApplied()) {
+            return ResponseEntity.badRequest().body(response);
         }
+        return ResponseEntity.ok(response);
     }
     
+    /**
+     * Deprecated in favour of {@code /{accountNumber}/page}: returns only the latest
+     * {@code obs.app.legacyHistoryLimit} transactions.
+     */
+    @Deprecated
     @GetMapping("/{accountNumber}")
     @PreAuthorize("hasRole('CUSTOMER') or hasRole('BANKER')")
-    public List<Transaction> getTransactionHistory(@PathVariable String accountNumber, Principal principal) {
-        return transactionService.getTransactionHistory(accountNumber, principal.getName());
+    public ResponseEntity<List<Transaction>> getTransactionHistory(@PathVariable String accountNumber, TransactionFilter filter,
+                                                                   Principal principal) {
+        return ResponseEntity.ok()
+                .header("Deprecation", "true")
+                .header(org.springframework.http.HttpHeaders.LINK, "</api/transactions/" + accountNumber + "/page>; rel=\"successor-version\"")
+                .body(transactionService.getTransactionHistory(accountNumber, principal.getName(), filter));
+    }
+
+    @GetMapping("/{accountNumber}/page")
+    @PreAuthorize("hasRole('CUSTOMER') or hasRole('BANKER')")
+    public TransactionPageResponse getTransactionPage(@PathVariable String accountNumber,
+                                                      @RequestParam(required = false) String cursor,
+                                                      @RequestParam(defaultValue = "50") int size,
+                                                      TransactionFilter filter, Principal principal) {
+        return transactionService.getTransactionPage(accountNumber, principal.getName(), filter, cursor, size);
     }
 
     @GetMapping("/pending")
     @PreAuthorize("hasRole('BANKER')")
-    public List<Transaction> getPendingTransactions() {
-        return transactionService.getPendingTransactions();
+    public List<Transaction> getPendingTransactions(@RequestParam(defaultValue = "age") String sort,
+                                                    @RequestParam(defaultValue = "0") int page,
+                                                    @RequestParam(defaultValue = "50") int size) {
+        return transactionService.getPendingTransactions(sort, page, size);
+    }
+
+    @GetMapping("/pending/count")
+    @PreAuthorize("hasRole('BANKER')")
+    public PendingCountResponse countPendingTransactions() {
+        return transactionService.countPendingTransactions();
     }
 
     @PutMapping("/{transactionId}/approve")
     @PreAuthorize("hasRole('BANKER')")
     public ResponseEntity<?> approveTransaction(@PathVariable Long transactionId) {
-        transactionService.approveTransaction(transactionId);
+        optimisticRetry.run(() -> transactionService.approveTransaction(transactionId));
         return ResponseEntity.ok(new MessageResponse("Transaction approved successfully!"));
     }
 
     @PutMapping("/{transactionId}/reject")
     @PreAuthorize("hasRole('BANKER')")
     public ResponseEntity<?> rejectTransaction(@PathVariable Long transactionId) {
-        transactionService.rejectTransaction(transactionId);
+        optimisticRetry.run(() -> transactionService.rejectTransaction(transactionId));
         return ResponseEntity.ok(new MessageResponse("Transaction rejected successfully!"));
     }
     @Autowired
     private com.obs.service.PdfGenerationService pdfGenerationService;
 
+    @Autowired
+    private com.obs.service.PdfCache pdfCache;
+
     @GetMapping("/{transactionId}/invoice")
     @PreAuthorize("hasRole('CUSTOMER') or hasRole('BANKER') or hasRole('ADMIN')")
-    public ResponseEntity<byte[]> downloadInvoice(@PathVariable Long transactionId) {
+    public ResponseEntity<StreamingResponseBody> downloadInvoice(@PathVariable Long transactionId,
+                                                                 @RequestHeader(value = org.springframework.http.HttpHeaders.IF_NONE_MATCH, required = false) String ifNoneMatch) {
         Transaction transaction = transactionService.getTransactionById(transactionId);
+        String filename = "invoice_" + transactionId + ".pdf";
+        String cacheKey = pdfGenerationService.invoiceCacheKey(transaction);
+        if (cacheKey != null) {
+            return pdfCache.serve(cacheKey, ifNoneMatch, filename, out -> out.write(pdfGenerationService.generateTransactionInvoice(transaction)));
+        }
         byte[] pdfBytes = pdfGenerationService.generateTransactionInvoice(transaction);
 
         return ResponseEntity.ok()
-                .header(org.springframework.http.HttpHeaders.CONTENT_DISPOSITION, "attachment; filename=invoice_" + transactionId + ".pdf")
+                .header(org.springframework.http.HttpHeaders.CONTENT_DISPOSITION, "attachment; filename=" + filename)
                 .contentType(org.springframework.http.MediaType.APPLICATION_PDF)
-                .body(pdfBytes);
+                .contentLength(pdfBytes.length)
+                .body(out -> out.write(pdfBytes));
     }
-    @Autowired
-    private com.obs.repository.AccountRepository accountRepository;
 
     @GetMapping("/{accountNumber}/statement")
     @PreAuthorize("hasRole('CUSTOMER') or hasRole('BANKER')")
-    public ResponseEntity<byte[]> downloadStatement(@PathVariable String accountNumber, Principal principal) {
-        com.obs.entity.Account account = accountRepository.findByAccountNumber(accountNumber)
-                .orElseThrow(() -> new RuntimeException("Account not found"));
+    public ResponseEntity<StreamingResponseBody> downloadStatement(@PathVariable String accountNumber, TransactionFilter filter,
+                                                                   @RequestHeader(value = org.springframework.http.HttpHeaders.IF_NONE_MATCH, required = false) String ifNoneMatch,
+                                                                   Principal principal) {
+        // Validate before streaming starts, while errors can still become a proper status code
+        com.obs.entity.Account account = transactionService.getStatementAccount(accountNumber, principal.getName(), filter);
+        String filename = "statement_" + accountNumber + ".pdf";
+        StreamingResponseBody body = out -> pdfGenerationService.writeAccountStatement(account, filter, out);
 
-        if (!account.getUser().getUsername().equals(principal.getName())) {
-             throw new IllegalArgumentException("Unauthorized access to account statement");
+        String cacheKey = pdfGenerationService.statementCacheKey(account, filter);
+        if (cacheKey != null) {
+            return pdfCache.serve(cacheKey, ifNoneMatch, filename, body::writeTo);
         }
+        return ResponseEntity.ok()
+                .header(org.springframework.http.HttpHeaders.CONTENT_DISPOSITION, "attachment; filename=" + filename)
+                .contentType(org.springframework.http.MediaType.APPLICATION_PDF)
+                .body(body);
+    }
 
-        List<Transaction> transactions = transactionService.getTransactionHistory(accountNumber, principal.getName());
-        byte[] pdfBytes = pdfGenerationService.generateAccountStatement(account, transactions);
+    @GetMapping("/{accountNumber}/export/csv")
+    @PreAuthorize("hasRole('CUSTOMER') or hasRole('BANKER')")
+    public ResponseEntity<StreamingResponseBody> exportCsv(@PathVariable String accountNumber, TransactionFilter filter,
+                                                           Principal principal) {
+        com.obs.entity.Account account = transactionService.getStatementAccount(accountNumber, principal.getName(), filter);
+
+        return ResponseEntity.ok()
+                .header(org.springframework.http.HttpHeaders.CONTENT_DISPOSITION, "attachment; filename=transactions_" + accountNumber + ".csv")
+                .contentType(new org.springframework.http.MediaType("text", "csv", java.nio.charset.StandardCharsets.UTF_8))
+                .body(out -> transactionExportService.writeCsv(account, filter, out));
+    }
+
+    @GetMapping("/{accountNumber}/export/ndjson")
+    @PreAuthorize("hasRole('CUSTOMER') or hasRole('BANKER')")
+    public ResponseEntity<StreamingResponseBody> exportNdjson(@PathVariable String accountNumber, TransactionFilter filter,
+                                                              Principal principal) {
+        com.obs.entity.Account account = transactionService.getStatementAccount(accountNumber, principal.getName(), filter);
+
+        return ResponseEntity.ok()
+                .header(org.springframework.http.HttpHeaders.CONTENT_DISPOSITION, "attachment; filename=transactions_" + accountNumber + ".ndjson")
+                .contentType(org.springframework.http.MediaType.APPLICATION_NDJSON)
+                .body(out -> transactionExportService.writeNdjson(account, filter, out));
+    }
+
+    @PostMapping("/{accountNumber}/statement/jobs")
+    @PreAuthorize("hasRole('CUSTOMER') or hasRole('BANKER')")
+    public ResponseEntity<StatementJobResponse> submitStatement(@PathVariable String accountNumber, TransactionFilter filter,
+                                                                Principal principal) {
+        return ResponseEntity.accepted()
+                .body(statementJobService.submit(accountNumber, principal.getName(), filter, principal.getName()));
+    }
+
+    @GetMapping("/statement-jobs/{jobId}")
+    @PreAuthorize("hasRole('CUSTOMER') or hasRole('BANKER') or hasRole('ADMIN')")
+    public StatementJobResponse getStatementJob(@PathVariable String jobId, Principal principal) {
+        return statementJobService.getStatus(jobId, principal.getName());
+    }
+
+    @GetMapping("/statement-jobs/{jobId}/download")
+    @PreAuthorize("hasRole('CUSTOMER') or hasRole('BANKER') or hasRole('ADMIN')")
+    public ResponseEntity<StreamingResponseBody> downloadStatementJob(@PathVariable String jobId, Principal principal) throws java.io.IOException {
+        java.nio.file.Path file = statementJobService.getResult(jobId, principal.getName());
+        String accountNumber = statementJobService.getAccountNumber(jobId, principal.getName());
 
         return ResponseEntity.ok()
                 .header(org.springframework.http.HttpHeaders.CONTENT_DISPOSITION, "attachment; filename=statement_" + accountNumber + ".pdf")
                 .contentType(org.springframework.http.MediaType.APPLICATION_PDF)
-                .body(pdfBytes);
+                .contentLength(java.nio.file.Files.size(file))
+                .body(out -> java.nio.file.Files.copy(file, out));
     }
 }
@@ -5,9 +5,11 @@ import java.math.BigDecimal;
 import java.util.List;
 
 @Entity
+@com.fasterxml.jackson.annotation.JsonIgnoreProperties({"hibernateLazyInitializer", "handler"})
 public class Account {
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "account_seq")
+    @SequenceGenerator(name = "account_seq", sequenceName = "obs_account_seq", allocationSize = 50)
     private Long id;
 
     @Column(unique = true, nullable = false)
@@ -17,6 +19,10 @@ public class Account {
     private AccountType accountType;
 
     private BigDecimal balance;
+
+    @Version
+    @Column(nullable = false, columnDefinition = "bigint default 0")
+    private Long version = 0L;
     
     @Column(nullable = false, columnDefinition = "boolean default true")
     private boolean active = true;
@@ -27,12 +33,13 @@ public class Account {
 
     private String panCardNumber;
 
-    @ManyToOne
+    @ManyToOne(fetch = FetchType.LAZY)
     @JoinColumn(name = "user_id", nullable = false)
     @com.fasterxml.jackson.annotation.JsonIgnore
     private User user;
 
     @OneToMany(mappedBy = "account", cascade = CascadeType.ALL)
+    @com.fasterxml.jackson.annotation.JsonIgnore
     private List<Transaction> transactions;
 
     public Long getId() {
@@ -67,6 +74,14 @@ public class Account {
         this.balance = balance;
     }
 
+    public Long getVersion() {
+        return version;
+    }
+
+    public void setVersion(Long version) {
+        this.version = version;
+    }
+
     public boolean isActive() {
         return active;
     }
@@ -7,7 +7,8 @@ import java.time.LocalDateTime;
 @Entity
 public class BillPayment {
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "bill_payment_seq")
+    @SequenceGenerator(name = "bill_payment_seq", sequenceName = "obs_bill_payment_seq", allocationSize = 50)
     private Long id;
 
     private String billerName;
@@ -18,7 +19,7 @@ public class BillPayment {
 
     private String status; // PENDING, PAID
 
-    @ManyToOne
+    @ManyToOne(fetch = FetchType.LAZY)
     @JoinColumn(name = "user_id")
     @com.fasterxml.jackson.annotation.JsonIgnore
     private User user;
@@ -0,0 +1,79 @@
+package com.obs.entity;
+
+import jakarta.persistence.*;
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+
+@Entity
+@Table(name = "ledger_entries", indexes = {
+        @Index(name = "idx_ledger_account_txid", columnList = "ledgerAccount, txid"),
+        @Index(name = "idx_ledger_entry_group", columnList = "entryGroup")
+})
+public class LedgerEntry {
+    @Id
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "ledger_entry_seq")
+    @SequenceGenerator(name = "ledger_entry_seq", sequenceName = "obs_ledger_entry_seq", allocationSize = 50)
+    private Long id;
+
+    // Legs of one posting share a group and always sum to zero
+    @Column(nullable = false, updatable = false)
+    private String entryGroup;
+
+    // Customer account number, or an internal account such as EXTERNAL:CASH
+    @Column(nullable = false, updatable = false)
+    private String ledgerAccount;
+
+    @Column(nullable = false, updatable = false)
+    private BigDecimal amount; // positive credits the ledger account, negative debits it
+
+    @Column(nullable = false, updatable = false)
+    private LocalDateTime createdAt;
+
+    // Id of the writing database transaction, filled in by the database; snapshots are cut by it
+    @Column(insertable = false, updatable = false, columnDefinition = "bigint default txid_current()")
+    private Long txid;
+
+    public Long getId() {
+        return id;
+    }
+
+    public void setId(Long id) {
+        this.id = id;
+    }
+
+    public String getEntryGroup() {
+        return entryGroup;
+    }
+
+    public void setEntryGroup(String entryGroup) {
+        this.entryGroup = entryGroup;
+    }
+
+    public String getLedgerAccount() {
+        return ledgerAccount;
+    }
+
+    public void setLedgerAccount(String ledgerAccount) {
+        this.ledgerAccount = ledgerAccount;
+    }
+
+    public BigDecimal getAmount() {
+        return amount;
+    }
+
+    public void setAmount(BigDecimal amount) {
+        this.amount = amount;
+    }
+
+    public LocalDateTime getCreatedAt() {
+        return createdAt;
+    }
+
+    public void setCreatedAt(LocalDateTime createdAt) {
+        this.createdAt = createdAt;
+    }
+
+    public Long getTxid() {
+        return txid;
+    }
+}
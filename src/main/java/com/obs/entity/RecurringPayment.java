@@ -10,10 +10,11 @@ import java.time.LocalDateTime;
 @Table(name = "recurring_payments")
 public class RecurringPayment {
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "recurring_payment_seq")
+    @SequenceGenerator(name = "recurring_payment_seq", sequenceName = "obs_recurring_payment_seq", allocationSize = 50)
     private Long id;
 
-    @ManyToOne
+    @ManyToOne(fetch = FetchType.LAZY)
     @JoinColumn(name = "account_id")
     private Account account;
 
@@ -5,9 +5,15 @@ import java.math.BigDecimal;
 import java.time.LocalDateTime;
 
 @Entity
+@Table(indexes = {
+        @Index(name = "idx_txn_account_ts_id", columnList = "account_id, timestamp DESC, id DESC"),
+        @Index(name = "idx_txn_account_type_ts", columnList = "account_id, type, timestamp DESC"),
+        @Index(name = "idx_txn_account_status_ts", columnList = "account_id, status, timestamp DESC")
+})
 public class Transaction {
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "transaction_seq")
+    @SequenceGenerator(name = "transaction_seq", sequenceName = "obs_transaction_seq", allocationSize = 50)
     private Long id;
 
     public String getTransactionId() {
@@ -23,14 +29,17 @@ public class Transaction {
 
     private String description;
 
-    @ManyToOne
+    @ManyToOne(fetch = FetchType.LAZY)
     @JoinColumn(name = "account_id")
     @com.fasterxml.jackson.annotation.JsonIgnoreProperties("transactions")
     private Account account;
 
     private String targetAccountNumber;
 
-    private String status; // SUCCESS, PENDING, REJECTED
+    private String status; // SUCCESS, PENDING, REJECTED, APPROVED (captured by a later row), REVERSED (refunded by a later row)
+
+    // Account balance right after this posting took effect
+    private BigDecimal balanceAfter;
 
     public Long getId() {
         return id;
@@ -95,4 +104,12 @@ public class Transaction {
     public void setStatus(String status) {
         this.status = status;
     }
+
+    public BigDecimal getBalanceAfter() {
+        return balanceAfter;
+    }
+
+    public void setBalanceAfter(BigDecimal balanceAfter) {
+        this.balanceAfter = balanceAfter;
+    }
 }
@@ -3,6 +3,8 @@ package com.obs.entity;
 import java.util.List;
 import java.util.Set;
 
+import org.hibernate.annotations.BatchSize;
+
 import jakarta.persistence.CascadeType;
 import jakarta.persistence.Column;
 import jakarta.persistence.ElementCollection;
@@ -18,10 +20,11 @@ import jakarta.persistence.Table;
 
 @Entity
 @Table(name = "users")
+@com.fasterxml.jackson.annotation.JsonIgnoreProperties({"hibernateLazyInitializer", "handler"})
 public class User {
     @Id
     @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "user_seq")
-    @jakarta.persistence.SequenceGenerator(name = "user_seq", sequenceName = "obs_user_seq", initialValue = 100000001, allocationSize = 1)
+    @jakarta.persistence.SequenceGenerator(name = "user_seq", sequenceName = "obs_user_seq", initialValue = 100000001, allocationSize = 50)
     private Long id;
 
     @Column(unique = true, nullable = false)
@@ -59,8 +62,10 @@ public class User {
         this.fullName = fullName;
     }
 
+    // Eager, so every loaded user loads its roles; batched so a page of owners is one query, not one each
     @ElementCollection(fetch = FetchType.EAGER)
     @Enumerated(EnumType.STRING)
+    @BatchSize(size = 50)
     private Set<Role> roles;
 
     @OneToMany(mappedBy = "user", cascade = CascadeType.ALL)
@@ -0,0 +1,45 @@
+package com.obs.payload.projection;
+
+import com.obs.entity.AccountType;
+
+public class AccountDirectoryEntry {
+    private final Long id;
+    private final String accountNumber;
+    private final Long userId;
+    private final String username;
+    private final boolean active;
+    private final AccountType accountType;
+
+    public AccountDirectoryEntry(Long id, String accountNumber, Long userId, String username, boolean active, AccountType accountType) {
+        this.id = id;
+        this.accountNumber = accountNumber;
+        this.userId = userId;
+        this.username = username;
+        this.active = active;
+        this.accountType = accountType;
+    }
+
+    public Long getId() {
+        return id;
+    }
+
+    public String getAccountNumber() {
+        return accountNumber;
+    }
+
+    public Long getUserId() {
+        return userId;
+    }
+
+    public String getUsername() {
+        return username;
+    }
+
+    public boolean isActive() {
+        return active;
+    }
+
+    public AccountType getAccountType() {
+        return accountType;
+    }
+}
@@ -0,0 +1,20 @@
+package com.obs.payload.request;
+
+import jakarta.validation.constraints.NotEmpty;
+import jakarta.validation.constraints.NotNull;
+import jakarta.validation.constraints.Size;
+import java.util.List;
+
+public class BulkDecisionRequest {
+    @NotEmpty
+    @Size(max = 1000)
+    private List<@NotNull Long> transactionIds;
+
+    public List<Long> getTransactionIds() {
+        return transactionIds;
+    }
+
+    public void setTransactionIds(List<Long> transactionIds) {
+        this.transactionIds = transactionIds;
+    }
+}
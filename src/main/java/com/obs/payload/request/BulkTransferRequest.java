@@ -0,0 +1,44 @@
+package com.obs.payload.request;
+
+import jakarta.validation.Valid;
+import jakarta.validation.constraints.NotBlank;
+import jakarta.validation.constraints.NotEmpty;
+import jakarta.validation.constraints.Size;
+import java.util.List;
+
+public class BulkTransferRequest {
+    @NotBlank
+    private String fromAccountNumber;
+
+    // true: any failing line rejects the whole batch, false: valid lines are applied and the rest reported
+    private boolean allOrNothing = true;
+
+    @NotEmpty
+    @Size(max = 10000)
+    @Valid
+    private List<BulkTransferLine> lines;
+
+    public String getFromAccountNumber() {
+        return fromAccountNumber;
+    }
+
+    public void setFromAccountNumber(String fromAccountNumber) {
+        this.fromAccountNumber = fromAccountNumber;
+    }
+
+    public boolean isAllOrNothing() {
+        return allOrNothing;
+    }
+
+    public void setAllOrNothing(boolean allOrNothing) {
+        this.allOrNothing = allOrNothing;
+    }
+
+    public List<BulkTransferLine> getLines() {
+        return lines;
+    }
+
+    public void setLines(List<BulkTransferLine> lines) {
+        this.lines = lines;
+    }
+}
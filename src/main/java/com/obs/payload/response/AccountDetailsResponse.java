@@ -6,15 +6,17 @@ public class AccountDetailsResponse {
     private Long id;
     private String accountNumber;
     private BigDecimal balance;
+    private BigDecimal availableBalance;
     private boolean active;
     private String username;
     private Long userId;
     private String email;
 
-    public AccountDetailsResponse(Long id, String accountNumber, BigDecimal balance, boolean active, String username, Long userId, String email) {
+    public AccountDetailsResponse(Long id, String accountNumber, BigDecimal balance, BigDecimal availableBalance, boolean active, String username, Long userId, String email) {
         this.id = id;
         this.accountNumber = accountNumber;
         this.balance = balance;
+        this.availableBalance = availableBalance;
         this.active = active;
         this.username = username;
         this.userId = userId;
@@ -45,6 +47,14 @@ public class AccountDetailsResponse {
         this.balance = balance;
     }
 
+    public BigDecimal getAvailableBalance() {
+        return availableBalance;
+    }
+
+    public void setAvailableBalance(BigDecimal availableBalance) {
+        this.availableBalance = availableBalance;
+    }
+
     public boolean isActive() {
         return active;
     }
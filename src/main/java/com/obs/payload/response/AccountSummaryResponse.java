@@ -0,0 +1,62 @@
+package com.obs.payload.response;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.List;
+
+import com.obs.entity.AccountType;
+
+public class AccountSummaryResponse {
+    private String accountNumber;
+    private AccountType accountType;
+    private BigDecimal balance;
+    private boolean active;
+    private List<TransactionSummary> recentTransactions = new ArrayList<>();
+
+    public AccountSummaryResponse(String accountNumber, AccountType accountType, BigDecimal balance, boolean active) {
+        this.accountNumber = accountNumber;
+        this.accountType = accountType;
+        this.balance = balance;
+        this.active = active;
+    }
+
+    public String getAccountNumber() {
+        return accountNumber;
+    }
+
+    public void setAccountNumber(String accountNumber) {
+        this.accountNumber = accountNumber;
+    }
+
+    public AccountType getAccountType() {
+        return accountType;
+    }
+
+    public void setAccountType(AccountType accountType) {
+        this.accountType = accountType;
+    }
+
+    public BigDecimal getBalance() {
+        return balance;
+    }
+
+    public void setBalance(BigDecimal balance) {
+        this.balance = balance;
+    }
+
+    public boolean isActive() {
+        return active;
+    }
+
+    public void setActive(boolean active) {
+        this.active = active;
+    }
+
+    public List<TransactionSummary> getRecentTransactions() {
+        return recentTransactions;
+    }
+
+    public void setRecentTransactions(List<TransactionSummary> recentTransactions) {
+        this.recentTransactions = recentTransactions;
+    }
+}
@@ -0,0 +1,39 @@
+package com.obs.payload.response;
+
+import java.util.List;
+
+public class BulkDecisionResponse {
+    private int succeeded;
+    private int failed;
+    private List<BulkDecisionResult> results;
+
+    public BulkDecisionResponse(int succeeded, int failed, List<BulkDecisionResult> results) {
+        this.succeeded = succeeded;
+        this.failed = failed;
+        this.results = results;
+    }
+
+    public int getSucceeded() {
+        return succeeded;
+    }
+
+    public void setSucceeded(int succeeded) {
+        this.succeeded = succeeded;
+    }
+
+    public int getFailed() {
+        return failed;
+    }
+
+    public void setFailed(int failed) {
+        this.failed = failed;
+    }
+
+    public List<BulkDecisionResult> getResults() {
+        return results;
+    }
+
+    public void setResults(List<BulkDecisionResult> results) {
+        this.results = results;
+    }
+}
@@ -0,0 +1,59 @@
+package com.obs.payload.response;
+
+import java.math.BigDecimal;
+
+public class BulkTransferLineResult {
+    private int line;
+    private String toAccountNumber;
+    private BigDecimal amount;
+    private String status; // SUCCESS, FAILED, SKIPPED
+    private String message;
+
+    public BulkTransferLineResult(int line, String toAccountNumber, BigDecimal amount, String status, String message) {
+        this.line = line;
+        this.toAccountNumber = toAccountNumber;
+        this.amount = amount;
+        this.status = status;
+        this.message = message;
+    }
+
+    public int getLine() {
+        return line;
+    }
+
+    public void setLine(int line) {
+        this.line = line;
+    }
+
+    public String getToAccountNumber() {
+        return toAccountNumber;
+    }
+
+    public void setToAccountNumber(String toAccountNumber) {
+        this.toAccountNumber = toAccountNumber;
+    }
+
+    public BigDecimal getAmount() {
+        return amount;
+    }
+
+    public void setAmount(BigDecimal amount) {
+        this.amount = amount;
+    }
+
+    public String getStatus() {
+        return status;
+    }
+
+    public void setStatus(String status) {
+        this.status = status;
+    }
+
+    public String getMessage() {
+        return message;
+    }
+
+    public void setMessage(String message) {
+        this.message = message;
+    }
+}
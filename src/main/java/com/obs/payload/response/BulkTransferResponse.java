@@ -0,0 +1,60 @@
+package com.obs.payload.response;
+
+import java.math.BigDecimal;
+import java.util.List;
+
+public class BulkTransferResponse {
+    private boolean applied;
+    private int succeeded;
+    private int failed;
+    private BigDecimal totalDebited;
+    private List<BulkTransferLineResult> results;
+
+    public BulkTransferResponse(boolean applied, int succeeded, int failed, BigDecimal totalDebited, List<BulkTransferLineResult> results) {
+        this.applied = applied;
+        this.succeeded = succeeded;
+        this.failed = failed;
+        this.totalDebited = totalDebited;
+        this.results = results;
+    }
+
+    public boolean isApplied() {
+        return applied;
+    }
+
+    public void setApplied(boolean applied) {
+        this.applied = applied;
+    }
+
+    public int getSucceeded() {
+        return succeeded;
+    }
+
+    public void setSucceeded(int succeeded) {
+        this.succeeded = succeeded;
+    }
+
+    public int getFailed() {
+        return failed;
+    }
+
+    public void setFailed(int failed) {
+        this.failed = failed;
+    }
+
+    public BigDecimal getTotalDebited() {
+        return totalDebited;
+    }
+
+    public void setTotalDebited(BigDecimal totalDebited) {
+        this.totalDebited = totalDebited;
+    }
+
+    public List<BulkTransferLineResult> getResults() {
+        return results;
+    }
+
+    public void setResults(List<BulkTransferLineResult> results) {
+        this.results = results;
+    }
+}
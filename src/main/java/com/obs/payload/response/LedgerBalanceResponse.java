@@ -0,0 +1,49 @@
+package com.obs.payload.response;
+
+import java.math.BigDecimal;
+
+public class LedgerBalanceResponse {
+    private String accountNumber;
+    private BigDecimal accountBalance;
+    private BigDecimal ledgerBalance;
+    private boolean consistent;
+
+    public LedgerBalanceResponse(String accountNumber, BigDecimal accountBalance, BigDecimal ledgerBalance) {
+        this.accountNumber = accountNumber;
+        this.accountBalance = accountBalance;
+        this.ledgerBalance = ledgerBalance;
+        this.consistent = accountBalance.compareTo(ledgerBalance) == 0;
+    }
+
+    public String getAccountNumber() {
+        return accountNumber;
+    }
+
+    public void setAccountNumber(String accountNumber) {
+        this.accountNumber = accountNumber;
+    }
+
+    public BigDecimal getAccountBalance() {
+        return accountBalance;
+    }
+
+    public void setAccountBalance(BigDecimal accountBalance) {
+        this.accountBalance = accountBalance;
+    }
+
+    public BigDecimal getLedgerBalance() {
+        return ledgerBalance;
+    }
+
+    public void setLedgerBalance(BigDecimal ledgerBalance) {
+        this.ledgerBalance = ledgerBalance;
+    }
+
+    public boolean isConsistent() {
+        return consistent;
+    }
+
+    public void setConsistent(boolean consistent) {
+        this.consistent = consistent;
+    }
+}
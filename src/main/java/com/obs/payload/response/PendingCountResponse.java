@@ -0,0 +1,29 @@
+package com.obs.payload.response;
+
+import java.math.BigDecimal;
+
+public class PendingCountResponse {
+    private long count;
+    private BigDecimal totalAmount;
+
+    public PendingCountResponse(long count, BigDecimal totalAmount) {
+        this.count = count;
+        this.totalAmount = totalAmount;
+    }
+
+    public long getCount() {
+        return count;
+    }
+
+    public void setCount(long count) {
+        this.count = count;
+    }
+
+    public BigDecimal getTotalAmount() {
+        return totalAmount;
+    }
+
+    public void setTotalAmount(BigDecimal totalAmount) {
+        this.totalAmount = totalAmount;
+    }
+}
@@ -0,0 +1,94 @@
+package com.obs.payload.response;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+
+import com.obs.entity.Transaction;
+
+/**
+ * Change to the banker approval queue: a transfer went PENDING ({@code ADDED}) or was approved or
+ * rejected ({@code REMOVED}). Published as an application event and streamed to bankers.
+ */
+public class PendingQueueEvent {
+    public static final String ADDED = "ADDED";
+    public static final String REMOVED = "REMOVED";
+
+    private String action;
+    private Long id;
+    private String accountNumber;
+    private String targetAccountNumber;
+    private BigDecimal amount;
+    private LocalDateTime timestamp;
+    private String status;
+
+    public PendingQueueEvent(String action, Transaction transaction) {
+        this.action = action;
+        this.id = transaction.getId();
+        this.accountNumber = transaction.getAccount().getAccountNumber();
+        this.targetAccountNumber = transaction.getTargetAccountNumber();
+        this.amount = transaction.getAmount();
+        this.timestamp = transaction.getTimestamp();
+        this.status = transaction.getStatus();
+    }
+
+    public String getAction() {
+        return action;
+    }
+
+    public void setAction(String action) {
+        this.action = action;
+    }
+
+    public Long getId() {
+        return id;
+    }
+
+    public void setId(Long id) {
+        this.id = id;
+    }
+
+    public String getTransactionId() {
+        if (id == null) return null;
+        return String.format("TXN%08d", id);
+    }
+
+    public String getAccountNumber() {
+        return accountNumber;
+    }
+
+    public void setAccountNumber(String accountNumber) {
+        this.accountNumber = accountNumber;
+    }
+
+    public String getTargetAccountNumber() {
+        return targetAccountNumber;
+    }
+
+    public void setTargetAccountNumber(String targetAccountNumber) {
+        this.targetAccountNumber = targetAccountNumber;
+    }
+
+    public BigDecimal getAmount() {
+        return amount;
+    }
+
+    public void setAmount(BigDecimal amount) {
+        this.amount = amount;
+    }
+
+    public LocalDateTime getTimestamp() {
+        return timestamp;
+    }
+
+    public void setTimestamp(LocalDateTime timestamp) {
+        this.timestamp = timestamp;
+    }
+
+    public String getStatus() {
+        return status;
+    }
+
+    public void setStatus(String status) {
+        this.status = status;
+    }
+}
@@ -0,0 +1,29 @@
+package com.obs.payload.response;
+
+import java.util.List;
+
+public class TransactionPageResponse {
+    private List<TransactionSummary> items;
+    private String nextCursor; // null on the last page
+
+    public TransactionPageResponse(List<TransactionSummary> items, String nextCursor) {
+        this.items = items;
+        this.nextCursor = nextCursor;
+    }
+
+    public List<TransactionSummary> getItems() {
+        return items;
+    }
+
+    public void setItems(List<TransactionSummary> items) {
+        this.items = items;
+    }
+
+    public String getNextCursor() {
+        return nextCursor;
+    }
+
+    public void setNextCursor(String nextCursor) {
+        this.nextCursor = nextCursor;
+    }
+}
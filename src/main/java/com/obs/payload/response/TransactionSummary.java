@@ -0,0 +1,96 @@
+package com.obs.payload.response;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+
+public class TransactionSummary {
+    private Long id;
+    private BigDecimal amount;
+    private LocalDateTime timestamp;
+    private String type;
+    private String description;
+    private String targetAccountNumber;
+    private String status;
+    private BigDecimal balanceAfter;
+
+    public TransactionSummary(Long id, BigDecimal amount, LocalDateTime timestamp, String type, String description,
+                              String targetAccountNumber, String status, BigDecimal balanceAfter) {
+        this.id = id;
+        this.amount = amount;
+        this.timestamp = timestamp;
+        this.type = type;
+        this.description = description;
+        this.targetAccountNumber = targetAccountNumber;
+        this.status = status;
+        this.balanceAfter = balanceAfter;
+    }
+
+    public Long getId() {
+        return id;
+    }
+
+    public void setId(Long id) {
+        this.id = id;
+    }
+
+    public String getTransactionId() {
+        if (id == null) return null;
+        return String.format("TXN%08d", id);
+    }
+
+    public BigDecimal getAmount() {
+        return amount;
+    }
+
+    public void setAmount(BigDecimal amount) {
+        this.amount = amount;
+    }
+
+    public LocalDateTime getTimestamp() {
+        return timestamp;
+    }
+
+    public void setTimestamp(LocalDateTime timestamp) {
+        this.timestamp = timestamp;
+    }
+
+    public String getType() {
+        return type;
+    }
+
+    public void setType(String type) {
+        this.type = type;
+    }
+
+    public String getDescription() {
+        return description;
+    }
+
+    public void setDescription(String description) {
+        this.description = description;
+    }
+
+    public String getTargetAccountNumber() {
+        return targetAccountNumber;
+    }
+
+    public void setTargetAccountNumber(String targetAccountNumber) {
+        this.targetAccountNumber = targetAccountNumber;
+    }
+
+    public String getStatus() {
+        return status;
+    }
+
+    public void setStatus(String status) {
+        this.status = status;
+    }
+
+    public BigDecimal getBalanceAfter() {
+        return balanceAfter;
+    }
+
+    public void setBalanceAfter(BigDecimal balanceAfter) {
+        this.balanceAfter = balanceAfter;
+    }
+}
@@ -0,0 +1,70 @@
+package com.obs.payload.response;
+
+import java.time.LocalDateTime;
+
+public class TransferStatusResponse {
+    private String transferId;
+    private String state; // QUEUED, RUNNING, COMPLETED, FAILED
+    private String result; // SUCCESS, PENDING (approval) once COMPLETED
+    private String message;
+    private LocalDateTime submittedAt;
+    private LocalDateTime completedAt;
+
+    public TransferStatusResponse(String transferId, String state, String result, String message,
+                                  LocalDateTime submittedAt, LocalDateTime completedAt) {
+        this.transferId = transferId;
+        this.state = state;
+        this.result = result;
+        this.message = message;
+        this.submittedAt = submittedAt;
+        this.completedAt = completedAt;
+    }
+
+    public String getTransferId() {
+        return transferId;
+    }
+
+    public void setTransferId(String transferId) {
+        this.transferId = transferId;
+    }
+
+    public String getState() {
+        return state;
+    }
+
+    public void setState(String state) {
+        this.state = state;
+    }
+
+    public String getResult() {
+        return result;
+    }
+
+    public void setResult(String result) {
+        this.result = result;
+    }
+
+    public String getMessage() {
+        return message;
+    }
+
+    public void setMessage(String message) {
+        this.message = message;
+    }
+
+    public LocalDateTime getSubmittedAt() {
+        return submittedAt;
+    }
+
+    public void setSubmittedAt(LocalDateTime submittedAt) {
+        this.submittedAt = submittedAt;
+    }
+
+    public LocalDateTime getCompletedAt() {
+        return completedAt;
+    }
+
+    public void setCompletedAt(LocalDateTime completedAt) {
+        this.completedAt = completedAt;
+    }
+}
@@ -2,11 +2,63 @@ package com.obs.repository;
 
 import com.obs.entity.Account;
 import com.obs.entity.User;
+import com.obs.payload.projection.AccountDirectoryEntry;
+import jakarta.persistence.LockModeType;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import java.util.Collection;
 import java.util.Optional;
 import java.util.List;
 
 public interface AccountRepository extends JpaRepository<Account, Long> {
     Optional<Account> findByAccountNumber(String accountNumber);
+
+    @EntityGraph(attributePaths = "user")
+    Optional<Account> findWithUserByAccountNumber(String accountNumber);
+
     List<Account> findByUser(User user);
+
+    @EntityGraph(attributePaths = "user")
+    List<Account> findByActiveTrueAndIdGreaterThanOrderById(Long id, Pageable pageable);
+
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("select a from Account a join fetch a.user where a.accountNumber in :accountNumbers order by a.id")
+    List<Account> findAllForUpdateByAccountNumberIn(@Param("accountNumbers") Collection<String> accountNumbers);
+
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("select a from Account a join fetch a.user where a.id in :ids or a.accountNumber in :accountNumbers order by a.id")
+    List<Account> findAllForUpdateByIdInOrAccountNumberIn(@Param("ids") Collection<Long> ids,
+                                                          @Param("accountNumbers") Collection<String> accountNumbers);
+
+    @Query("select a from Account a join fetch a.user where a.id in :ids or a.accountNumber in :accountNumbers")
+    List<Account> findAllByIdInOrAccountNumberIn(@Param("ids") Collection<Long> ids,
+                                                 @Param("accountNumbers") Collection<String> accountNumbers);
+
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("select a from Account a where a.id in :ids order by a.id")
+    List<Account> findAllForUpdateByIdIn(@Param("ids") Collection<Long> ids);
+
+    @Query("select new com.obs.payload.projection.AccountDirectoryEntry(a.id, a.accountNumber, u.id, u.username, a.active, a.accountType) " +
+            "from Account a join a.user u where a.accountNumber = :accountNumber")
+    Optional<AccountDirectoryEntry> findDirectoryEntry(@Param("accountNumber") String accountNumber);
+
+    /**
+     * One row per account of the user, or one per mini-statement entry (newest {@code recent}, via
+     * the (account_id, timestamp, id) index) with the account columns repeated.
+     */
+    @Query(value = "select a.account_number, a.account_type, a.balance, a.active, " +
+            "t.id, t.amount, t.timestamp, t.type, t.description, t.target_account_number, t.status, t.balance_after " +
+            "from account a join users u on u.id = a.user_id " +
+            "left join lateral (select * from transaction x where x.account_id = a.id " +
+            "order by x.timestamp desc, x.id desc limit :recent) t on true " +
+            "where u.username = :username order by a.id, t.timestamp desc, t.id desc", nativeQuery = true)
+    List<Object[]> findSummaryRows(@Param("username") String username, @Param("recent") int recent);
+
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("select a from Account a where a.id = :id")
+    Optional<Account> findByIdForUpdate(@Param("id") Long id);
 }
@@ -0,0 +1,41 @@
+package com.obs.repository;
+
+import com.obs.entity.AsyncTransfer;
+import jakarta.persistence.LockModeType;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Optional;
+
+public interface AsyncTransferRepository extends JpaRepository<AsyncTransfer, String> {
+
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("select t from AsyncTransfer t where t.id = :id")
+    Optional<AsyncTransfer> findByIdForUpdate(@Param("id") String id);
+
+    @Query("select t from AsyncTransfer t where t.state in ('QUEUED', 'RUNNING') and t.submittedAt < :before order by t.submittedAt")
+    List<AsyncTransfer> findUnfinishedSubmittedBefore(@Param("before") LocalDateTime before);
+
+    @Modifying
+    @Transactional
+    @Query("update AsyncTransfer t set t.state = 'RUNNING' where t.id = :id and t.state = 'QUEUED'")
+    int markRunning(@Param("id") String id);
+
+    // Only unfinished transfers: one that completed in the meantime keeps its outcome
+    @Modifying
+    @Transactional
+    @Query("update AsyncTransfer t set t.state = 'FAILED', t.message = :message, t.completedAt = :completedAt " +
+            "where t.id = :id and t.state in ('QUEUED', 'RUNNING')")
+    int markFailed(@Param("id") String id, @Param("message") String message, @Param("completedAt") LocalDateTime completedAt);
+
+    @Modifying
+    @Transactional
+    @Query("delete from AsyncTransfer t where t.completedAt < :cutoff")
+    int deleteCompletedBefore(@Param("cutoff") LocalDateTime cutoff);
+}
@@ -0,0 +1,22 @@
+package com.obs.repository;
+
+import com.obs.entity.BalanceHold;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+
+import java.math.BigDecimal;
+import java.util.Collection;
+import java.util.List;
+import java.util.Optional;
+
+public interface BalanceHoldRepository extends JpaRepository<BalanceHold, Long> {
+    Optional<BalanceHold> findByTransactionId(Long transactionId);
+
+    List<BalanceHold> findByAccountId(Long accountId);
+
+    List<BalanceHold> findByTransactionIdIn(Collection<Long> transactionIds);
+
+    @Query("select coalesce(sum(h.amount), 0) from BalanceHold h where h.accountId = :accountId")
+    BigDecimal sumByAccountId(@Param("accountId") Long accountId);
+}
@@ -0,0 +1,14 @@
+package com.obs.repository;
+
+import com.obs.entity.BalanceSnapshot;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+
+import java.util.Optional;
+
+public interface BalanceSnapshotRepository extends JpaRepository<BalanceSnapshot, Long> {
+    Optional<BalanceSnapshot> findFirstByLedgerAccountOrderByWatermarkDesc(String ledgerAccount);
+
+    @Query("select coalesce(max(s.watermark), 0) from BalanceSnapshot s")
+    Long findLatestWatermark();
+}
@@ -0,0 +1,26 @@
+package com.obs.repository;
+
+import com.obs.entity.LedgerEntry;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+
+import java.math.BigDecimal;
+import java.util.List;
+
+public interface LedgerEntryRepository extends JpaRepository<LedgerEntry, Long> {
+
+    @Query("select coalesce(sum(e.amount), 0) from LedgerEntry e where e.ledgerAccount = :ledgerAccount and e.txid >= :watermark")
+    BigDecimal sumSince(@Param("ledgerAccount") String ledgerAccount, @Param("watermark") Long watermark);
+
+    // Oldest transaction id still in progress; every lower id has finished
+    @Query(value = "select txid_snapshot_xmin(txid_current_snapshot())", nativeQuery = true)
+    Long findCommittedTxidWatermark();
+
+    @Query("select e.ledgerAccount, sum(e.amount) from LedgerEntry e where e.txid >= :from and e.txid < :to group by e.ledgerAccount")
+    List<Object[]> sumByAccountBetween(@Param("from") Long from, @Param("to") Long to);
+
+    @Query("select a.accountNumber, a.balance from Account a where a.balance <> 0 " +
+            "and not exists (select 1 from LedgerEntry e where e.ledgerAccount = a.accountNumber)")
+    List<Object[]> findAccountsWithoutOpeningEntries();
+}
@@ -2,14 +2,22 @@ package com.obs.repository;
 
 import com.obs.entity.Account;
 import com.obs.entity.RecurringPayment;
+import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.stereotype.Repository;
 
 import java.time.LocalDate;
 import java.util.List;
+import java.util.Optional;
 
 @Repository
 public interface RecurringPaymentRepository extends JpaRepository<RecurringPayment, Long> {
+    @EntityGraph(attributePaths = "account")
     List<RecurringPayment> findByAccount(Account account);
+
+    @EntityGraph(attributePaths = {"account", "account.user"})
+    Optional<RecurringPayment> findWithAccountById(Long id);
+
+    @EntityGraph(attributePaths = "account")
     List<RecurringPayment> findByStatusAndNextPaymentDateLessThanEqual(String status, LocalDate date);
 }
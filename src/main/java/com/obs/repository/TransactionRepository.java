@@ -2,9 +2,53 @@ package com.obs.repository;
 
 import com.obs.entity.Transaction;
 import com.obs.entity.Account;
+import com.obs.payload.response.PendingCountResponse;
+import jakarta.persistence.LockModeType;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
+import java.util.Optional;
 
-public interface TransactionRepository extends JpaRepository<Transaction, Long> {
+public interface TransactionRepository extends JpaRepository<Transaction, Long>, TransactionRepositoryCustom {
     List<Transaction> findByAccount(Account account);
+
+    @EntityGraph(attributePaths = {"account", "account.user"})
+    Optional<Transaction> findWithAccountById(Long id);
+
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("select t from Transaction t where t.id = :id")
+    Optional<Transaction> findByIdForUpdate(@Param("id") Long id);
+
+    @Query("select distinct t.account.id from Transaction t where t.balanceAfter is null and t.account is not null")
+    List<Long> findAccountIdsMissingBalanceAfter();
+
+    @Query("select t from Transaction t where t.account.id = :accountId order by t.timestamp asc, t.id asc")
+    List<Transaction> findByAccountIdInPostingOrder(@Param("accountId") Long accountId);
+
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("select t from Transaction t where t.id in :ids order by t.id")
+    List<Transaction> findAllForUpdateByIdIn(@Param("ids") Collection<Long> ids);
+
+    // The literal status matches the partial index predicate (see PendingQueueIndexInitializer)
+    // The queue renders each row's account and owner
+    @Query("select t from Transaction t join fetch t.account a join fetch a.user where t.status = 'PENDING'")
+    List<Transaction> findPending(Pageable pageable);
+
+    @Query("select new com.obs.payload.response.PendingCountResponse(count(t), coalesce(sum(abs(t.amount)), 0)) " +
+            "from Transaction t where t.status = 'PENDING'")
+    PendingCountResponse countPending();
+
+    // The account's last posting before a point in time, in posting order; its balanceAfter is the balance then
+    Optional<Transaction> findFirstByAccountIdAndTimestampBeforeOrderByTimestampDescIdDesc(Long accountId, LocalDateTime timestamp);
+
+    @Query("select count(t) > 0 from Transaction t where t.account.id = :accountId and t.status = 'PENDING' " +
+            "and t.timestamp >= :from and t.timestamp < :to")
+    boolean existsPendingBetween(@Param("accountId") Long accountId, @Param("from") LocalDateTime from,
+                                 @Param("to") LocalDateTime to);
 }
@@ -0,0 +1,38 @@
+package com.obs.repository;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.stream.Stream;
+
+import com.obs.entity.Transaction;
+import com.obs.payload.request.TransactionFilter;
+import com.obs.payload.response.TransactionSummary;
+
+public interface TransactionRepositoryCustom {
+
+    /**
+     * Newest-first summaries matching the filter, strictly older than ({@code beforeTimestamp}, {@code beforeId})
+     * when a keyset position is given.
+     */
+    List<TransactionSummary> findSummaries(Long accountId, TransactionFilter filter,
+                                           LocalDateTime beforeTimestamp, Long beforeId, int limit);
+
+    /**
+     * Oldest-first summaries matching the filter, strictly newer than ({@code afterTimestamp}, {@code afterId})
+     * when a keyset position is given.
+     */
+    List<TransactionSummary> findSummariesInPostingOrder(Long accountId, TransactionFilter filter,
+                                                         LocalDateTime afterTimestamp, Long afterId, int limit);
+
+    /**
+     * All matching summaries in posting order, read through a server-side cursor {@code fetchSize} rows
+     * at a time. Must be consumed and closed inside a transaction.
+     */
+    Stream<TransactionSummary> streamSummariesInPostingOrder(Long accountId, TransactionFilter filter, int fetchSize);
+
+    /**
+     * The latest {@code limit} matching transactions, returned in posting order (oldest first), for
+     * the deprecated full-history endpoints.
+     */
+    List<Transaction> findFiltered(Long accountId, TransactionFilter filter, int limit);
+}
@@ -0,0 +1,127 @@
+package com.obs.repository;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.stream.Stream;
+
+import org.hibernate.jpa.HibernateHints;
+
+import com.obs.entity.Transaction;
+import com.obs.payload.request.TransactionFilter;
+import com.obs.payload.response.TransactionSummary;
+
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import jakarta.persistence.criteria.CriteriaBuilder;
+import jakarta.persistence.criteria.CriteriaQuery;
+import jakarta.persistence.criteria.Predicate;
+import jakarta.persistence.criteria.Root;
+
+/**
+ * Builds history queries from only the filters that are set, so each variant gets a plain
+ * sargable predicate list the planner can match to the (account_id, type|status, timestamp) indexes.
+ */
+public class TransactionRepositoryCustomImpl implements TransactionRepositoryCustom {
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    @Override
+    public List<TransactionSummary> findSummaries(Long accountId, TransactionFilter filter,
+                                                  LocalDateTime beforeTimestamp, Long beforeId, int limit) {
+        return summaries(accountId, filter, beforeTimestamp, beforeId, limit, true);
+    }
+
+    @Override
+    public List<TransactionSummary> findSummariesInPostingOrder(Long accountId, TransactionFilter filter,
+                                                                LocalDateTime afterTimestamp, Long afterId, int limit) {
+        return summaries(accountId, filter, afterTimestamp, afterId, limit, false);
+    }
+
+    @Override
+    public Stream<TransactionSummary> streamSummariesInPostingOrder(Long accountId, TransactionFilter filter, int fetchSize) {
+        return entityManager.createQuery(summaryQuery(accountId, filter, null, null, false))
+                .setHint(HibernateHints.HINT_FETCH_SIZE, fetchSize)
+                .getResultStream();
+    }
+
+    @Override
+    public List<Transaction> findFiltered(Long accountId, TransactionFilter filter, int limit) {
+        CriteriaBuilder cb = entityManager.getCriteriaBuilder();
+        CriteriaQuery<Transaction> query = cb.createQuery(Transaction.class);
+        Root<Transaction> t = query.from(Transaction.class);
+        // Rendered with each row in the history JSON
+        t.fetch("account");
+
+        query.select(t)
+                .where(predicates(cb, t, accountId, filter).toArray(new Predicate[0]))
+                .orderBy(cb.desc(t.get("timestamp")), cb.desc(t.get("id")));
+
+        List<Transaction> latest = new ArrayList<>(entityManager.createQuery(query).setMaxResults(limit).getResultList());
+        Collections.reverse(latest);
+        return latest;
+    }
+
+    private List<TransactionSummary> summaries(Long accountId, TransactionFilter filter, LocalDateTime timestamp,
+                                               Long id, int limit, boolean newestFirst) {
+        return entityManager.createQuery(summaryQuery(accountId, filter, timestamp, id, newestFirst))
+                .setMaxResults(limit)
+                .getResultList();
+    }
+
+    private CriteriaQuery<TransactionSummary> summaryQuery(Long accountId, TransactionFilter filter, LocalDateTime timestamp,
+                                                           Long id, boolean newestFirst) {
+        CriteriaBuilder cb = entityManager.getCriteriaBuilder();
+        CriteriaQuery<TransactionSummary> query = cb.createQuery(TransactionSummary.class);
+        Root<Transaction> t = query.from(Transaction.class);
+
+        List<Predicate> predicates = predicates(cb, t, accountId, filter);
+        if (timestamp != null) {
+            predicates.add(newestFirst
+                    ? cb.or(cb.lessThan(t.get("timestamp"), timestamp),
+                            cb.and(cb.equal(t.get("timestamp"), timestamp), cb.lessThan(t.get("id"), id)))
+                    : cb.or(cb.greaterThan(t.get("timestamp"), timestamp),
+                            cb.and(cb.equal(t.get("timestamp"), timestamp), cb.greaterThan(t.get("id"), id))));
+        }
+
+        query.select(cb.construct(TransactionSummary.class,
+                        t.get("id"), t.get("amount"), t.get("timestamp"), t.get("type"), t.get("description"),
+                        t.get("targetAccountNumber"), t.get("status"), t.get("balanceAfter")))
+                .where(predicates.toArray(new Predicate[0]))
+                .orderBy(newestFirst
+                        ? List.of(cb.desc(t.get("timestamp")), cb.desc(t.get("id")))
+                        : List.of(cb.asc(t.get("timestamp")), cb.asc(t.get("id"))));
+        return query;
+    }
+
+    private List<Predicate> predicates(CriteriaBuilder cb, Root<Transaction> t, Long accountId, TransactionFilter filter) {
+        List<Predicate> predicates = new ArrayList<>();
+        predicates.add(cb.equal(t.get("account").get("id"), accountId));
+        if (filter == null) {
+            return predicates;
+        }
+        if (filter.getFrom() != null) {
+            predicates.add(cb.greaterThanOrEqualTo(t.get("timestamp"), filter.getFrom().atStartOfDay()));
+        }
+        if (filter.getTo() != null) {
+            predicates.add(cb.lessThan(t.get("timestamp"), filter.getTo().plusDays(1).atStartOfDay()));
+        }
+        if (filter.getType() != null) {
+            predicates.add(cb.equal(t.get("type"), filter.getType()));
+        }
+        if (filter.getStatus() != null) {
+            predicates.add(cb.equal(t.get("status"), filter.getStatus()));
+        }
+        // Debits are stored negative; amount filters are on the size of the posting, whatever its direction
+        if (filter.getMinAmount() != null) {
+            predicates.add(cb.greaterThanOrEqualTo(cb.abs(t.<BigDecimal>get("amount")), filter.getMinAmount()));
+        }
+        if (filter.getMaxAmount() != null) {
+            predicates.add(cb.lessThanOrEqualTo(cb.abs(t.<BigDecimal>get("amount")), filter.getMaxAmount()));
+        }
+        return predicates;
+    }
+}
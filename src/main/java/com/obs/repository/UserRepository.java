@@ -1,11 +1,19 @@
 package com.obs.repository;
 
 import com.obs.entity.User;
+import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
+import java.util.List;
 import java.util.Optional;
 
 public interface UserRepository extends JpaRepository<User, Long> {
+    @Override
+    @EntityGraph(attributePaths = "roles")
+    List<User> findAll();
+
+    @EntityGraph(attributePaths = "roles")
     Optional<User> findByUsername(String username);
+
     Boolean existsByUsername(String username);
     Boolean existsByEmail(String email);
 }
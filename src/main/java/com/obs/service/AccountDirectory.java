@@ -0,0 +1,84 @@
+package com.obs.service;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Optional;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import com.obs.payload.projection.AccountDirectoryEntry;
+import com.obs.repository.AccountRepository;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+
+/**
+ * In-process near-cache of the immutable facts about an account (id, owner, type) plus its
+ * active flag, so ownership and frozen checks do not need to load the {@code Account} entity.
+ * Bounded by {@code obs.app.accountDirectorySize} with LRU eviction; entries must be invalidated
+ * whenever the active flag changes.
+ */
+@Service
+public class AccountDirectory {
+
+    @Autowired
+    private AccountRepository accountRepository;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @Value("${obs.app.accountDirectorySize:50000}")
+    private int maxEntries;
+
+    private final Map<String, AccountDirectoryEntry> entries = new LinkedHashMap<>(16, 0.75f, true) {
+        @Override
+        protected boolean removeEldestEntry(Map.Entry<String, AccountDirectoryEntry> eldest) {
+            return size() > maxEntries;
+        }
+    };
+
+    private Counter hits;
+
+    private Counter misses;
+
+    @PostConstruct
+    public void init() {
+        hits = Counter.builder("obs.account.directory")
+                .tag("result", "hit")
+                .description("Account directory lookups")
+                .register(meterRegistry);
+        misses = Counter.builder("obs.account.directory")
+                .tag("result", "miss")
+                .description("Account directory lookups")
+                .register(meterRegistry);
+    }
+
+    public Optional<AccountDirectoryEntry> find(String accountNumber) {
+        AccountDirectoryEntry entry;
+        synchronized (entries) {
+            entry = entries.get(accountNumber);
+        }
+        if (entry != null) {
+            hits.increment();
+            return Optional.of(entry);
+        }
+
+        misses.increment();
+        Optional<AccountDirectoryEntry> loaded = accountRepository.findDirectoryEntry(accountNumber);
+        loaded.ifPresent(found -> {
+            synchronized (entries) {
+                entries.put(accountNumber, found);
+            }
+        });
+        return loaded;
+    }
+
+    public void invalidate(String accountNumber) {
+        synchronized (entries) {
+            entries.remove(accountNumber);
+        }
+    }
+}
@@ -0,0 +1,55 @@
+package com.obs.service;
+
+import java.math.BigDecimal;
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Service;
+
+import com.obs.entity.AccountType;
+import com.obs.payload.response.AccountSummaryResponse;
+import com.obs.payload.response.TransactionSummary;
+import com.obs.repository.AccountRepository;
+
+/**
+ * Dashboard view of a user's accounts, read with a single query instead of loading account entities.
+ */
+@Service
+public class AccountSummaryService {
+
+    public static final int MAX_RECENT = 20;
+
+    @Autowired
+    private AccountRepository accountRepository;
+
+    public List<AccountSummaryResponse> getSummaries(String username, int recent) {
+        if (recent < 0 || recent > MAX_RECENT) {
+            throw new IllegalArgumentException("recent must be between 0 and " + MAX_RECENT);
+        }
+
+        Map<String, AccountSummaryResponse> summaries = new LinkedHashMap<>();
+        for (Object[] row : accountRepository.findSummaryRows(username, recent)) {
+            String accountNumber = (String) row[0];
+            AccountSummaryResponse summary = summaries.computeIfAbsent(accountNumber, number ->
+                    new AccountSummaryResponse(number, AccountType.valueOf((String) row[1]), (BigDecimal) row[2], (Boolean) row[3]));
+            if (row[4] != null) {
+                summary.getRecentTransactions().add(new TransactionSummary(
+                        ((Number) row[4]).longValue(), (BigDecimal) row[5], toLocalDateTime(row[6]), (String) row[7],
+                        (String) row[8], (String) row[9], (String) row[10], (BigDecimal) row[11]));
+            }
+        }
+        return new ArrayList<>(summaries.values());
+    }
+
+    private static LocalDateTime toLocalDateTime(Object value) {
+        if (value instanceof Timestamp timestamp) {
+            return timestamp.toLocalDateTime();
+        }
+        return (LocalDateTime) value;
+    }
+}
@@ -0,0 +1,249 @@
+package com.obs.service;
+
+import java.time.LocalDateTime;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import com.obs.entity.AsyncTransfer;
+import com.obs.exception.ResourceNotFoundException;
+import com.obs.exception.ServiceBusyException;
+import com.obs.payload.request.TransferRequest;
+import com.obs.payload.response.TransferStatusResponse;
+import com.obs.repository.AsyncTransferRepository;
+
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+
+/**
+ * Accepts transfers without holding the request thread: each submission is stored as an
+ * {@link AsyncTransfer} row and committed before the client gets its id, then runs on a bounded
+ * worker pool. The transfer marks its row COMPLETED in its own database transaction, so a row that
+ * is still QUEUED or RUNNING never moved money and can be run again: rows left behind by a
+ * restart, or by a full worker queue, are picked up after {@code obs.app.asyncTransferRecoverAfterMinutes}.
+ * Finished transfers are kept for {@code obs.app.asyncTransferRetentionMinutes} so clients can
+ * poll or wait for the outcome.
+ */
+@Service
+public class AsyncTransferService {
+
+    private static final Logger logger = LoggerFactory.getLogger(AsyncTransferService.class);
+
+    @Autowired
+    private TransferDispatcher transferDispatcher;
+
+    @Autowired
+    private AsyncTransferRepository asyncTransferRepository;
+
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    @Value("${obs.app.asyncTransferWorkers:8}")
+    private int workers;
+
+    @Value("${obs.app.asyncTransferQueueCapacity:1000}")
+    private int queueCapacity;
+
+    @Value("${obs.app.asyncTransferRetentionMinutes:60}")
+    private long retentionMinutes;
+
+    @Value("${obs.app.asyncTransferRecoverAfterMinutes:5}")
+    private long recoverAfterMinutes;
+
+    // Transfers queued or running on this instance, for long polls and to avoid recovering them twice
+    private final Map<String, CompletableFuture<Void>> local = new ConcurrentHashMap<>();
+
+    private ThreadPoolExecutor executor;
+
+    @PostConstruct
+    public void init() {
+        AtomicInteger threadCount = new AtomicInteger();
+        executor = new ThreadPoolExecutor(workers, workers, 0L, TimeUnit.MILLISECONDS,
+                new ArrayBlockingQueue<>(queueCapacity),
+                runnable -> {
+                    Thread thread = new Thread(runnable, "async-transfer-" + threadCount.incrementAndGet());
+                    thread.setDaemon(true);
+                    return thread;
+                });
+    }
+
+    /**
+     * Stores the transfer and queues it. The optional {@code claim} commits with the stored row.
+     */
+    public TransferStatusResponse submit(TransferRequest transferRequest, String username, IdempotencyClaim claim) {
+        if (executor.getQueue().remainingCapacity() == 0) {
+            throw new ServiceBusyException("Too many transfers in progress, please retry later");
+        }
+
+        AsyncTransfer transfer = new AsyncTransfer();
+        transfer.setId(UUID.randomUUID().toString());
+        transfer.setUsername(username);
+        transfer.setFromAccountNumber(transferRequest.getFromAccountNumber());
+        transfer.setToAccountNumber(transferRequest.getToAccountNumber());
+        transfer.setAmount(transferRequest.getAmount());
+        transfer.setState("QUEUED");
+        transfer.setSubmittedAt(LocalDateTime.now());
+        TransferStatusResponse response = transactionTemplate.execute(status -> {
+            if (claim != null) {
+                claim.begin();
+            }
+            asyncTransferRepository.save(transfer);
+            TransferStatusResponse accepted = toResponse(transfer);
+            if (claim != null) {
+                claim.complete(accepted);
+            }
+            return accepted;
+        });
+
+        // Stored either way: if the queue filled up in the meantime, recovery runs it later
+        enqueue(transfer.getId());
+        return response;
+    }
+
+    public TransferStatusResponse getStatus(String transferId, String username) {
+        return toResponse(findTransfer(transferId, username));
+    }
+
+    /**
+     * Completes with the final status once the transfer has finished (immediately if it is not
+     * running on this instance).
+     */
+    public CompletableFuture<TransferStatusResponse> whenDone(String transferId, String username) {
+        findTransfer(transferId, username);
+        CompletableFuture<Void> done = local.getOrDefault(transferId, CompletableFuture.completedFuture(null));
+        return done.thenApply(ignored -> getStatus(transferId, username));
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void recoverOnStartup() {
+        recover(LocalDateTime.now());
+    }
+
+    @Scheduled(fixedDelayString = "${obs.app.asyncTransferRecoveryMs:60000}")
+    public void recoverStalled() {
+        recover(LocalDateTime.now().minusMinutes(recoverAfterMinutes));
+    }
+
+    @Scheduled(fixedDelay = 60000)
+    public void purgeFinished() {
+        asyncTransferRepository.deleteCompletedBefore(LocalDateTime.now().minusMinutes(retentionMinutes));
+    }
+
+    @PreDestroy
+    public void shutdown() throws InterruptedException {
+        // Queued transfers stay QUEUED in the database and are recovered after the restart
+        executor.shutdownNow();
+        executor.awaitTermination(10, TimeUnit.SECONDS);
+    }
+
+    private void recover(LocalDateTime submittedBefore) {
+        for (AsyncTransfer transfer : asyncTransferRepository.findUnfinishedSubmittedBefore(submittedBefore)) {
+            if (!local.containsKey(transfer.getId())) {
+                logger.info("Recovering async transfer {} ({})", transfer.getId(), transfer.getState());
+                enqueue(transfer.getId());
+            }
+        }
+    }
+
+    private void enqueue(String transferId) {
+        CompletableFuture<Void> done = new CompletableFuture<>();
+        if (local.putIfAbsent(transferId, done) != null) {
+            return;
+        }
+        try {
+            executor.execute(() -> run(transferId, done));
+        } catch (RejectedExecutionException e) {
+            local.remove(transferId);
+            done.complete(null);
+        }
+    }
+
+    private AsyncTransfer findTransfer(String transferId, String username) {
+        return asyncTransferRepository.findById(transferId)
+                .filter(transfer -> transfer.getUsername().equals(username))
+                .orElseThrow(() -> new ResourceNotFoundException("Transfer not found"));
+    }
+
+    private void run(String transferId, CompletableFuture<Void> done) {
+        try {
+            AsyncTransfer transfer = asyncTransferRepository.findById(transferId).orElse(null);
+            if (transfer == null || !("QUEUED".equals(transfer.getState()) || "RUNNING".equals(transfer.getState()))) {
+                return;
+            }
+            asyncTransferRepository.markRunning(transferId);
+
+            TransferRequest transferRequest = new TransferRequest();
+            transferRequest.setFromAccountNumber(transfer.getFromAccountNumber());
+            transferRequest.setToAccountNumber(transfer.getToAccountNumber());
+            transferRequest.setAmount(transfer.getAmount());
+            try {
+                transferDispatcher.dispatch(transferRequest, transfer.getUsername(), new TransferClaim(transferId));
+            } catch (AlreadyFinishedException e) {
+                // Another instance ran it first
+            } catch (RuntimeException e) {
+                // The transfer rolled back, so its row is still unfinished
+                asyncTransferRepository.markFailed(transferId, e.getMessage(), LocalDateTime.now());
+            }
+        } catch (RuntimeException e) {
+            logger.error("Async transfer {} could not be run, leaving it for recovery", transferId, e);
+        } finally {
+            local.remove(transferId);
+            done.complete(null);
+        }
+    }
+
+    private static TransferStatusResponse toResponse(AsyncTransfer transfer) {
+        return new TransferStatusResponse(transfer.getId(), transfer.getState(), transfer.getResult(), transfer.getMessage(),
+                transfer.getSubmittedAt(), transfer.getCompletedAt());
+    }
+
+    /**
+     * Locks the transfer's row in the transfer's own transaction and marks it COMPLETED there, so
+     * the money moves at most once however often the row is run.
+     */
+    private class TransferClaim implements IdempotencyClaim {
+        private final String transferId;
+        private AsyncTransfer locked;
+
+        private TransferClaim(String transferId) {
+            this.transferId = transferId;
+        }
+
+        @Override
+        public void begin() {
+            locked = asyncTransferRepository.findByIdForUpdate(transferId)
+                    .orElseThrow(() -> new AlreadyFinishedException());
+            if ("COMPLETED".equals(locked.getState()) || "FAILED".equals(locked.getState())) {
+                throw new AlreadyFinishedException();
+            }
+        }
+
+        @Override
+        public void complete(Object result) {
+            locked.setState("COMPLETED");
+            locked.setResult((String) result);
+            locked.setCompletedAt(LocalDateTime.now());
+        }
+    }
+
+    private static class AlreadyFinishedException extends RuntimeException {
+        private static final long serialVersionUID = 1L;
+    }
+}
@@ -31,8 +31,14 @@ public class BillPaymentService {
     @Autowired
     private com.obs.repository.TransactionRepository transactionRepository;
 
+    @Autowired
+    private LedgerService ledgerService;
+
+    @Autowired
+    private TransactionService transactionService;
+
     @Transactional
-    public void payBill(Long userId, String fromAccountNumber, String billerName, BigDecimal amount) {
+    public void payBill(Long userId, String fromAccountNumber, String billerName, BigDecimal amount, IdempotencyClaim claim) {
         User user = userRepository.findById(userId)
                 .orElseThrow(() -> new IllegalArgumentException("User not found"));
 
@@ -43,12 +49,19 @@ public class BillPaymentService {
             throw new IllegalArgumentException("Account does not belong to user");
         }
 
-        if (account.getBalance().compareTo(amount) < 0) {
+        // Holds are written under this row lock, so the available balance cannot change before the debit
+        transactionService.lockInOrder(account);
+
+        if (transactionService.getAvailableBalance(account).compareTo(amount) < 0) {
             throw new IllegalArgumentException("Insufficient balance");
         }
 
+        if (claim != null) {
+            claim.begin();
+        }
+
         // Deduct balance
-        account.setBalance(account.getBalance().subtract(amount));
+        ledgerService.post(account.getAccountNumber(), LedgerService.BILLERS, amount, account);
         accountRepository.save(account);
 
         // Record Bill Payment
@@ -69,7 +82,12 @@ public class BillPaymentService {
         transaction.setTimestamp(LocalDateTime.now());
         transaction.setDescription("Bill Payment: " + billerName);
         transaction.setStatus("SUCCESS");
+        transaction.setBalanceAfter(account.getBalance());
         transactionRepository.save(transaction);
+
+        if (claim != null) {
+            claim.complete(null);
+        }
     }
 
     public List<BillPayment> getMyBills(Long userId) {
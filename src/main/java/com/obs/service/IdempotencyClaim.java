@@ -0,0 +1,14 @@
+package com.obs.service;
+
+/**
+ * Bookkeeping that must commit or roll back together with a money movement. A service that
+ * accepts a claim calls {@link #begin()} inside its transaction before changing any balance, and
+ * {@link #complete(Object)} with its result before the transaction commits. Either call may throw
+ * to abort the movement, e.g. when the claim turns out to be a duplicate.
+ */
+public interface IdempotencyClaim {
+
+    void begin();
+
+    void complete(Object result);
+}
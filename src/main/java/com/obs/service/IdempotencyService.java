@@ -0,0 +1,191 @@
+package com.obs.service;
+
+import java.time.LocalDateTime;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Optional;
+import java.util.function.Function;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.obs.entity.IdempotencyRecord;
+import com.obs.exception.ConflictException;
+import com.obs.repository.IdempotencyRecordRepository;
+
+/**
+ * Replays the stored response for a repeated {@code Idempotency-Key} instead of running the
+ * money-moving action again. The key row is inserted as IN_PROGRESS inside the same database
+ * transaction as the movement (see {@link IdempotencyClaim}) and its response filled in before that
+ * transaction commits, so a key is recorded if and only if the money moved. The unique
+ * (username, key) index makes a concurrent duplicate wait for the first attempt and then fail,
+ * which is answered with the stored response. Keys are kept for {@code obs.app.idempotencyTtlHours};
+ * recent keys are served from a bounded in-memory LRU before falling back to the indexed table.
+ */
+@Service
+public class IdempotencyService {
+
+    public static final String HEADER = "Idempotency-Key";
+
+    public static final String IN_PROGRESS = "IN_PROGRESS";
+
+    public static final String COMPLETED = "COMPLETED";
+
+    private static final int MAX_KEY_LENGTH = 255;
+
+    @Autowired
+    private IdempotencyRecordRepository idempotencyRecordRepository;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Value("${obs.app.idempotencyTtlHours:24}")
+    private long ttlHours;
+
+    @Value("${obs.app.idempotencyCacheSize:10000}")
+    private int cacheSize;
+
+    private final Map<String, IdempotencyRecord> recent = new LinkedHashMap<>(16, 0.75f, true) {
+        @Override
+        protected boolean removeEldestEntry(Map.Entry<String, IdempotencyRecord> eldest) {
+            return size() > cacheSize;
+        }
+    };
+
+    /**
+     * Runs {@code action} with a claim on the key, or replays the response stored for it. The action
+     * must pass the claim to the transactional service that moves the money. {@code render} turns
+     * the action's result into the response; it runs inside that transaction to store the response,
+     * so it must only read what the result already holds.
+     */
+    public <T> ResponseEntity<?> execute(String idempotencyKey, String username, String endpoint,
+                                         Function<IdempotencyClaim, T> action, Function<T, ResponseEntity<?>> render) {
+        if (idempotencyKey == null || idempotencyKey.isBlank()) {
+            return render.apply(action.apply(null));
+        }
+        if (idempotencyKey.length() > MAX_KEY_LENGTH) {
+            throw new IllegalArgumentException(HEADER + " must be at most " + MAX_KEY_LENGTH + " characters");
+        }
+
+        String cacheKey = username + ":" + idempotencyKey;
+        Optional<IdempotencyRecord> stored = lookup(cacheKey, username, idempotencyKey);
+        if (stored.isPresent()) {
+            return replay(stored.get(), endpoint);
+        }
+
+        KeyClaim claim = new KeyClaim(username, idempotencyKey, endpoint, render);
+        T result;
+        try {
+            result = action.apply(claim);
+        } catch (DataIntegrityViolationException e) {
+            // The key row is unique: another attempt with this key committed first
+            IdempotencyRecord winner = idempotencyRecordRepository.findByUsernameAndIdempotencyKey(username, idempotencyKey)
+                    .orElseThrow(() -> e);
+            return replay(winner, endpoint);
+        }
+        if (claim.record != null) {
+            synchronized (recent) {
+                recent.put(cacheKey, claim.record);
+            }
+        }
+        return render.apply(result);
+    }
+
+    @Scheduled(fixedDelayString = "${obs.app.idempotencyCleanupMs:3600000}")
+    public void purgeExpired() {
+        LocalDateTime cutoff = LocalDateTime.now().minusHours(ttlHours);
+        synchronized (recent) {
+            recent.values().removeIf(record -> record.getCreatedAt().isBefore(cutoff));
+        }
+        idempotencyRecordRepository.deleteCreatedBefore(cutoff);
+    }
+
+    private Optional<IdempotencyRecord> lookup(String cacheKey, String username, String idempotencyKey) {
+        IdempotencyRecord record;
+        synchronized (recent) {
+            record = recent.get(cacheKey);
+        }
+        if (record == null) {
+            record = idempotencyRecordRepository.findByUsernameAndIdempotencyKey(username, idempotencyKey).orElse(null);
+            if (record == null) {
+                return Optional.empty();
+            }
+            synchronized (recent) {
+                recent.put(cacheKey, record);
+            }
+        }
+        if (record.getCreatedAt().isBefore(LocalDateTime.now().minusHours(ttlHours))) {
+            // Expired but not yet purged: free the key so the new attempt can claim it
+            synchronized (recent) {
+                recent.remove(cacheKey);
+            }
+            idempotencyRecordRepository.deleteById(record.getId());
+            return Optional.empty();
+        }
+        return Optional.of(record);
+    }
+
+    private ResponseEntity<?> replay(IdempotencyRecord record, String endpoint) {
+        if (!record.getEndpoint().equals(endpoint)) {
+            throw new ConflictException(HEADER + " was already used for a different request");
+        }
+        if (IN_PROGRESS.equals(record.getState())) {
+            throw new ConflictException("A request with this " + HEADER + " is already being processed");
+        }
+        return ResponseEntity.status(record.getResponseStatus())
+                .contentType(MediaType.APPLICATION_JSON)
+                .header("Idempotent-Replayed", "true")
+                .body(record.getResponseBody());
+    }
+
+    /**
+     * Claim on one key, written through the caller's transaction.
+     */
+    private class KeyClaim implements IdempotencyClaim {
+        private final String username;
+        private final String idempotencyKey;
+        private final String endpoint;
+        private final Function<Object, ResponseEntity<?>> render;
+        private IdempotencyRecord record;
+
+        @SuppressWarnings("unchecked")
+        private KeyClaim(String username, String idempotencyKey, String endpoint, Function<?, ResponseEntity<?>> render) {
+            this.username = username;
+            this.idempotencyKey = idempotencyKey;
+            this.endpoint = endpoint;
+            this.render = (Function<Object, ResponseEntity<?>>) render;
+        }
+
+        @Override
+        public void begin() {
+            IdempotencyRecord claimed = new IdempotencyRecord();
+            claimed.setUsername(username);
+            claimed.setIdempotencyKey(idempotencyKey);
+            claimed.setEndpoint(endpoint);
+            claimed.setState(IN_PROGRESS);
+            claimed.setCreatedAt(LocalDateTime.now());
+            // Flushed now so a duplicate blocks on (or fails against) the unique index before any balance changes
+            idempotencyRecordRepository.saveAndFlush(claimed);
+            record = claimed;
+        }
+
+        @Override
+        public void complete(Object result) {
+            ResponseEntity<?> response = render.apply(result);
+            record.setResponseStatus(response.getStatusCode().value());
+            try {
+                record.setResponseBody(objectMapper.writeValueAsString(response.getBody()));
+            } catch (JsonProcessingException e) {
+                throw new RuntimeException("Could not store idempotent response", e);
+            }
+            record.setState(COMPLETED);
+        }
+    }
+}
@@ -0,0 +1,163 @@
+package com.obs.service;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Isolation;
+import org.springframework.transaction.annotation.Transactional;
+
+import com.obs.entity.Account;
+import com.obs.entity.BalanceSnapshot;
+import com.obs.entity.LedgerEntry;
+import com.obs.repository.BalanceSnapshotRepository;
+import com.obs.repository.LedgerEntryRepository;
+
+/**
+ * Append-only double-entry ledger and the only code that changes a customer account balance.
+ * Every money movement is written as a group of legs that sums to zero, and the same call applies
+ * the customer legs to the (locked) {@link Account} rows in the caller's transaction, so the stored
+ * balance is a materialized sum of the account's entries and cannot drift from them. Ledger
+ * balances are the latest snapshot plus the entries of transactions at or above its watermark.
+ */
+@Service
+public class LedgerService {
+
+    public static final String CASH = "EXTERNAL:CASH";
+    public static final String BILLERS = "EXTERNAL:BILLERS";
+    public static final String OPENING = "EXTERNAL:OPENING";
+    public static final String PENDING_TRANSFERS = "SUSPENSE:PENDING";
+
+    @Autowired
+    private LedgerEntryRepository ledgerEntryRepository;
+
+    @Autowired
+    private BalanceSnapshotRepository balanceSnapshotRepository;
+
+    /**
+     * Moves {@code amount} from one ledger account to another: applies the legs to the customer
+     * accounts among {@code accounts}, which the caller must have loaded (and locked) in this
+     * transaction, and returns them. Legs of several movements can be collected and written
+     * together with {@link #post(List)} before the transaction commits.
+     */
+    public List<LedgerEntry> move(String fromLedgerAccount, String toLedgerAccount, BigDecimal amount, Account... accounts) {
+        List<LedgerEntry> legs = transferLegs(fromLedgerAccount, toLedgerAccount, amount);
+        for (LedgerEntry leg : legs) {
+            apply(leg, accounts);
+        }
+        return legs;
+    }
+
+    @Transactional
+    public void post(String fromLedgerAccount, String toLedgerAccount, BigDecimal amount, Account... accounts) {
+        post(move(fromLedgerAccount, toLedgerAccount, amount, accounts));
+    }
+
+    @Transactional
+    public void post(List<LedgerEntry> legs) {
+        BigDecimal total = legs.stream().map(LedgerEntry::getAmount).reduce(BigDecimal.ZERO, BigDecimal::add);
+        if (total.signum() != 0) {
+            throw new IllegalStateException("Ledger posting is not balanced: " + total);
+        }
+        ledgerEntryRepository.saveAll(legs);
+    }
+
+    /**
+     * Ledger balance as of one consistent database snapshot.
+     */
+    @Transactional(readOnly = true, isolation = Isolation.REPEATABLE_READ)
+    public BigDecimal getBalance(String ledgerAccount) {
+        return balanceSnapshotRepository.findFirstByLedgerAccountOrderByWatermarkDesc(ledgerAccount)
+                .map(snapshot -> snapshot.getBalance().add(ledgerEntryRepository.sumSince(ledgerAccount, snapshot.getWatermark())))
+                .orElseGet(() -> ledgerEntryRepository.sumSince(ledgerAccount, 0L));
+    }
+
+    /**
+     * Rolls the entries of every finished transaction into new snapshots. Entry ids are allocated
+     * before commit and out of order, so the watermark is the oldest transaction id still running
+     * (the xmin of the current database snapshot): every entry written by a lower transaction id
+     * has committed or rolled back, and no entry can appear below it later.
+     */
+    @Scheduled(fixedDelayString = "${obs.app.ledgerSnapshotMs:900000}")
+    @Transactional
+    public void takeSnapshots() {
+        Long from = balanceSnapshotRepository.findLatestWatermark();
+        Long to = ledgerEntryRepository.findCommittedTxidWatermark();
+        if (to <= from) {
+            return;
+        }
+
+        LocalDateTime now = LocalDateTime.now();
+        List<BalanceSnapshot> snapshots = new ArrayList<>();
+        for (Object[] row : ledgerEntryRepository.sumByAccountBetween(from, to)) {
+            String ledgerAccount = (String) row[0];
+            BigDecimal delta = (BigDecimal) row[1];
+            BigDecimal previous = balanceSnapshotRepository.findFirstByLedgerAccountOrderByWatermarkDesc(ledgerAccount)
+                    .map(BalanceSnapshot::getBalance)
+                    .orElse(BigDecimal.ZERO);
+
+            BalanceSnapshot snapshot = new BalanceSnapshot();
+            snapshot.setLedgerAccount(ledgerAccount);
+            snapshot.setBalance(previous.add(delta));
+            snapshot.setWatermark(to);
+            snapshot.setCreatedAt(now);
+            snapshots.add(snapshot);
+        }
+        balanceSnapshotRepository.saveAll(snapshots);
+    }
+
+    /**
+     * Accounts that held money before the ledger existed get a single opening posting so that
+     * their ledger balance starts from the stored account balance.
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    @Transactional
+    public void postOpeningBalances() {
+        List<LedgerEntry> legs = new ArrayList<>();
+        for (Object[] row : ledgerEntryRepository.findAccountsWithoutOpeningEntries()) {
+            legs.addAll(transferLegs(OPENING, (String) row[0], (BigDecimal) row[1]));
+        }
+        if (!legs.isEmpty()) {
+            post(legs);
+        }
+    }
+
+    private List<LedgerEntry> transferLegs(String fromLedgerAccount, String toLedgerAccount, BigDecimal amount) {
+        String group = UUID.randomUUID().toString();
+        LocalDateTime now = LocalDateTime.now();
+        List<LedgerEntry> legs = new ArrayList<>(2);
+        legs.add(leg(group, fromLedgerAccount, amount.negate(), now));
+        legs.add(leg(group, toLedgerAccount, amount, now));
+        return legs;
+    }
+
+    private static void apply(LedgerEntry leg, Account... accounts) {
+        // Internal accounts (EXTERNAL:*, SUSPENSE:*) exist only in the ledger
+        if (leg.getLedgerAccount().contains(":")) {
+            return;
+        }
+        for (Account account : accounts) {
+            if (account.getAccountNumber().equals(leg.getLedgerAccount())) {
+                account.setBalance(account.getBalance().add(leg.getAmount()));
+                return;
+            }
+        }
+        throw new IllegalStateException("Account " + leg.getLedgerAccount() + " must be loaded to post to it");
+    }
+
+    private LedgerEntry leg(String group, String ledgerAccount, BigDecimal amount, LocalDateTime createdAt) {
+        LedgerEntry entry = new LedgerEntry();
+        entry.setEntryGroup(group);
+        entry.setLedgerAccount(ledgerAccount);
+        entry.setAmount(amount);
+        entry.setCreatedAt(createdAt);
+        return entry;
+    }
+}
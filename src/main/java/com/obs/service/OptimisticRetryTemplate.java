@@ -0,0 +1,102 @@
+package com.obs.service;
+
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.function.Supplier;
+
+import org.hibernate.StaleStateException;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.OptimisticLockingFailureException;
+import org.springframework.stereotype.Component;
+
+import com.obs.exception.ConflictException;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+import jakarta.persistence.OptimisticLockException;
+
+/**
+ * Re-runs a balance-changing operation when its transaction loses an optimistic version check on
+ * {@code Account}. Must wrap the whole transactional call, never run inside it, so that every
+ * attempt starts from freshly loaded rows.
+ */
+@Component
+public class OptimisticRetryTemplate {
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @Value("${obs.app.optimisticMaxAttempts:5}")
+    private int maxAttempts;
+
+    @Value("${obs.app.optimisticBackoffMs:10}")
+    private long backoffMs;
+
+    private Counter conflicts;
+
+    private Counter retries;
+
+    private Counter exhausted;
+
+    @PostConstruct
+    public void init() {
+        conflicts = Counter.builder("obs.account.optimistic.conflicts")
+                .description("Account version conflicts detected")
+                .register(meterRegistry);
+        retries = Counter.builder("obs.account.optimistic.retries")
+                .description("Operations re-run after an account version conflict")
+                .register(meterRegistry);
+        exhausted = Counter.builder("obs.account.optimistic.exhausted")
+                .description("Operations that still conflicted after the last attempt")
+                .register(meterRegistry);
+    }
+
+    public <T> T execute(Supplier<T> action) {
+        for (int attempt = 1; ; attempt++) {
+            try {
+                return action.get();
+            } catch (RuntimeException e) {
+                if (!isVersionConflict(e)) {
+                    throw e;
+                }
+                conflicts.increment();
+                if (attempt >= maxAttempts) {
+                    exhausted.increment();
+                    throw new ConflictException("The account was updated concurrently, please retry");
+                }
+                retries.increment();
+                backOff(attempt);
+            }
+        }
+    }
+
+    public void run(Runnable action) {
+        execute(() -> {
+            action.run();
+            return null;
+        });
+    }
+
+    private boolean isVersionConflict(Throwable e) {
+        for (Throwable cause = e; cause != null; cause = cause.getCause()) {
+            if (cause instanceof OptimisticLockingFailureException
+                    || cause instanceof OptimisticLockException
+                    || cause instanceof StaleStateException) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private void backOff(int attempt) {
+        // Exponential backoff with full jitter so that colliding writers spread out
+        long ceiling = backoffMs << Math.min(attempt - 1, 6);
+        try {
+            Thread.sleep(ThreadLocalRandom.current().nextLong(ceiling + 1));
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new ConflictException("Interrupted while retrying a conflicting update");
+        }
+    }
+}
@@ -0,0 +1,327 @@
+package com.obs.service;
+
+import java.io.BufferedOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.channels.WritableByteChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.attribute.FileTime;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HexFormat;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Stream;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.CacheControl;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+
+/**
+ * Cache for PDFs whose content can no longer change. Callers pass a key that covers everything the
+ * document shows; its SHA-256 names the cached file and doubles as the ETag, so a matching
+ * {@code If-None-Match} is answered with 304 before anything is generated or read. Small documents
+ * are kept in a byte-bounded LRU in memory, all of them on disk, served with {@link FileChannel#transferTo}.
+ * Documents generated on demand go to the cache directory, which is trimmed to a byte budget;
+ * pre-generated ones ({@link #prefill}) go to the store directory, which is kept for a retention
+ * period instead, so a month's statements are not evicted by on-demand traffic or a tmp cleaner.
+ */
+@Service
+public class PdfCache {
+
+    private static final Logger logger = LoggerFactory.getLogger(PdfCache.class);
+
+    @FunctionalInterface
+    public interface PdfSource {
+        void writeTo(OutputStream out) throws IOException;
+    }
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @Value("${obs.app.pdfCacheDir:${java.io.tmpdir}/obs-pdf-cache}")
+    private Path directory;
+
+    @Value("${obs.app.pdfCacheMemoryBytes:67108864}")
+    private long memoryBudget;
+
+    @Value("${obs.app.pdfCacheMaxEntryBytes:1048576}")
+    private long maxMemoryEntry;
+
+    @Value("${obs.app.pdfCacheDiskBytes:1073741824}")
+    private long diskBudget;
+
+    @Value("${obs.app.pdfStoreDir:data/statements}")
+    private Path storeDirectory;
+
+    @Value("${obs.app.pdfStoreRetentionDays:400}")
+    private int storeRetentionDays;
+
+    private final LinkedHashMap<String, byte[]> memory = new LinkedHashMap<>(16, 0.75f, true);
+
+    private long memoryBytes;
+
+    private Counter memoryHits;
+
+    private Counter diskHits;
+
+    private Counter storeHits;
+
+    private Counter misses;
+
+    private Counter notModified;
+
+    @PostConstruct
+    public void init() throws IOException {
+        Files.createDirectories(directory);
+        Files.createDirectories(storeDirectory);
+        memoryHits = counter("memory");
+        diskHits = counter("disk");
+        storeHits = counter("store");
+        misses = counter("miss");
+        notModified = counter("not_modified");
+    }
+
+    public ResponseEntity<StreamingResponseBody> serve(String key, String ifNoneMatch, String filename, PdfSource source) {
+        String hash = sha256(key);
+        String etag = "\"" + hash + "\"";
+        if (matches(ifNoneMatch, etag)) {
+            notModified.increment();
+            return ResponseEntity.status(HttpStatus.NOT_MODIFIED).eTag(etag).build();
+        }
+
+        byte[] cached;
+        synchronized (memory) {
+            cached = memory.get(hash);
+        }
+        if (cached != null) {
+            memoryHits.increment();
+            byte[] bytes = cached;
+            return response(etag, filename, bytes.length, out -> out.write(bytes));
+        }
+
+        Path stored = storeDirectory.resolve(hash + ".pdf");
+        Path file = Files.exists(stored) ? stored : directory.resolve(hash + ".pdf");
+        try {
+            if (file == stored) {
+                storeHits.increment();
+            } else if (Files.exists(file)) {
+                diskHits.increment();
+                Files.setLastModifiedTime(file, FileTime.fromMillis(System.currentTimeMillis()));
+            } else {
+                misses.increment();
+                generate(file, hash, source);
+            }
+
+            long size = Files.size(file);
+            if (size <= maxMemoryEntry) {
+                byte[] bytes = Files.readAllBytes(file);
+                remember(hash, bytes);
+                return response(etag, filename, size, out -> out.write(bytes));
+            }
+            return response(etag, filename, size, out -> {
+                try (FileChannel channel = FileChannel.open(file)) {
+                    WritableByteChannel target = Channels.newChannel(out);
+                    long position = 0;
+                    while (position < size) {
+                        position += channel.transferTo(position, size - position, target);
+                    }
+                }
+            });
+        } catch (IOException e) {
+            throw new UncheckedIOException("Could not serve cached PDF", e);
+        }
+    }
+
+    /**
+     * Generates the document into the store ahead of the first request for it. Returns false if it
+     * was already stored.
+     */
+    public boolean prefill(String key, PdfSource source) throws IOException {
+        String hash = sha256(key);
+        Path file = storeDirectory.resolve(hash + ".pdf");
+        if (Files.exists(file)) {
+            return false;
+        }
+        generate(file, hash, source);
+        return true;
+    }
+
+    /**
+     * Directory of pre-generated documents; not trimmed to the cache budget, so batch jobs keep
+     * their own state (such as a checkpoint) here too.
+     */
+    public Path getStoreDirectory() {
+        return storeDirectory;
+    }
+
+    /**
+     * Drops every cached and stored document, e.g. after a data repair changed rows that rendered
+     * PDFs show.
+     */
+    public void clear() {
+        synchronized (memory) {
+            memory.clear();
+            memoryBytes = 0;
+        }
+        try (Stream<Path> files = Files.list(directory)) {
+            files.filter(file -> !isInProgress(file)).forEach(this::deleteQuietly);
+        } catch (IOException e) {
+            logger.warn("Could not clear PDF cache: {}", e.getMessage());
+        }
+        try (Stream<Path> files = Files.list(storeDirectory)) {
+            files.filter(PdfCache::isDocument).forEach(this::deleteQuietly);
+        } catch (IOException e) {
+            logger.warn("Could not clear PDF store: {}", e.getMessage());
+        }
+    }
+
+    @Scheduled(fixedDelayString = "${obs.app.pdfCacheCleanupMs:3600000}")
+    public void trimDisk() {
+        List<Path> files = new ArrayList<>();
+        long total = 0;
+        try (Stream<Path> listing = Files.list(directory)) {
+            for (Path file : (Iterable<Path>) listing::iterator) {
+                if (isInProgress(file)) {
+                    continue;
+                }
+                files.add(file);
+                total += Files.size(file);
+            }
+            files.sort(Comparator.comparing(this::lastModified));
+            for (Path file : files) {
+                if (total <= diskBudget) {
+                    break;
+                }
+                total -= Files.size(file);
+                deleteQuietly(file);
+            }
+        } catch (IOException e) {
+            logger.warn("Could not trim PDF cache: {}", e.getMessage());
+        }
+
+        FileTime expiry = FileTime.fromMillis(System.currentTimeMillis() - TimeUnit.DAYS.toMillis(storeRetentionDays));
+        try (Stream<Path> listing = Files.list(storeDirectory)) {
+            listing.filter(PdfCache::isDocument)
+                    .filter(file -> lastModified(file).compareTo(expiry) < 0)
+                    .forEach(this::deleteQuietly);
+        } catch (IOException e) {
+            logger.warn("Could not trim PDF store: {}", e.getMessage());
+        }
+    }
+
+    private void generate(Path file, String hash, PdfSource source) throws IOException {
+        Path temp = Files.createTempFile(file.getParent(), hash, ".tmp");
+        try {
+            try (OutputStream out = new BufferedOutputStream(Files.newOutputStream(temp))) {
+                source.writeTo(out);
+            }
+            Files.move(temp, file, StandardCopyOption.ATOMIC_MOVE, StandardCopyOption.REPLACE_EXISTING);
+        } finally {
+            Files.deleteIfExists(temp);
+        }
+    }
+
+    private void remember(String hash, byte[] bytes) {
+        synchronized (memory) {
+            byte[] previous = memory.put(hash, bytes);
+            memoryBytes += bytes.length - (previous != null ? previous.length : 0);
+            Iterator<Map.Entry<String, byte[]>> eldest = memory.entrySet().iterator();
+            while (memoryBytes > memoryBudget && eldest.hasNext()) {
+                memoryBytes -= eldest.next().getValue().length;
+                eldest.remove();
+            }
+        }
+    }
+
+    private ResponseEntity<StreamingResponseBody> response(String etag, String filename, long size, StreamingResponseBody body) {
+        return ResponseEntity.ok()
+                .eTag(etag)
+                .cacheControl(CacheControl.noCache().cachePrivate())
+                .header(HttpHeaders.CONTENT_DISPOSITION, "attachment; filename=" + filename)
+                .contentType(MediaType.APPLICATION_PDF)
+                .contentLength(size)
+                .body(body);
+    }
+
+    private static boolean matches(String ifNoneMatch, String etag) {
+        if (ifNoneMatch == null) {
+            return false;
+        }
+        for (String candidate : ifNoneMatch.split(",")) {
+            String tag = candidate.trim();
+            if (tag.startsWith("W/")) {
+                tag = tag.substring(2);
+            }
+            if (tag.equals(etag) || tag.equals("*")) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private static String sha256(String key) {
+        try {
+            MessageDigest digest = MessageDigest.getInstance("SHA-256");
+            return HexFormat.of().formatHex(digest.digest(key.getBytes(StandardCharsets.UTF_8)));
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    // A document still being generated; deleting it would fail the move that publishes it
+    private static boolean isInProgress(Path file) {
+        return file.getFileName().toString().endsWith(".tmp");
+    }
+
+    private static boolean isDocument(Path file) {
+        return file.getFileName().toString().endsWith(".pdf");
+    }
+
+    private FileTime lastModified(Path file) {
+        try {
+            return Files.getLastModifiedTime(file);
+        } catch (IOException e) {
+            return FileTime.fromMillis(0);
+        }
+    }
+
+    private void deleteQuietly(Path file) {
+        try {
+            Files.deleteIfExists(file);
+        } catch (IOException e) {
+            logger.warn("Could not delete cached PDF {}: {}", file, e.getMessage());
+        }
+    }
+
+    private Counter counter(String result) {
+        return Counter.builder("obs.pdf.cache")
+                .tag("result", result)
+                .description("PDF cache lookups")
+                .register(meterRegistry);
+    }
+}
@@ -1,12 +1,24 @@
 package com.obs.service;
 
 import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.math.BigDecimal;
+import java.time.LocalDate;
 import java.time.format.DateTimeFormatter;
+import java.util.List;
+import java.util.Optional;
 
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.core.io.ClassPathResource;
 import org.springframework.stereotype.Service;
 
+import com.itextpdf.io.font.FontProgram;
+import com.itextpdf.io.font.FontProgramFactory;
 import com.itextpdf.io.font.PdfEncodings;
-import com.itextpdf.kernel.font.PdfFont;
 import com.itextpdf.kernel.font.PdfFontFactory;
 import com.itextpdf.kernel.pdf.PdfDocument;
 import com.itextpdf.kernel.pdf.PdfWriter;
@@ -18,10 +30,36 @@ import com.itextpdf.layout.properties.TextAlignment;
 import com.itextpdf.layout.properties.UnitValue;
 import com.obs.entity.Account;
 import com.obs.entity.Transaction;
+import com.obs.payload.request.TransactionFilter;
+import com.obs.payload.response.TransactionSummary;
+import com.obs.repository.TransactionRepository;
+
+import jakarta.annotation.PostConstruct;
 
 @Service
 public class PdfGenerationService {
 
+    private static final int STATEMENT_PAGE_SIZE = 500;
+
+    // Bundled so the Rupee sign renders on any OS; parsed once and shared by every document
+    private static final String FONT_RESOURCE = "fonts/DejaVuSans.ttf";
+
+    private static final Logger logger = LoggerFactory.getLogger(PdfGenerationService.class);
+
+    @Autowired
+    private TransactionRepository transactionRepository;
+
+    private FontProgram fontProgram;
+
+    @PostConstruct
+    public void loadFont() {
+        try (InputStream in = new ClassPathResource(FONT_RESOURCE).getInputStream()) {
+            fontProgram = FontProgramFactory.createFont(in.readAllBytes());
+        } catch (IOException e) {
+            logger.warn("Could not load {}, PDFs will use the default font: {}", FONT_RESOURCE, e.getMessage());
+        }
+    }
+
     public byte[] generateTransactionInvoice(Transaction transaction) {
         ByteArrayOutputStream baos = new ByteArrayOutputStream();
         try {
@@ -29,14 +67,7 @@ public class PdfGenerationService {
             PdfDocument pdf = new PdfDocument(writer);
             Document document = new Document(pdf);
 
-            String currencySymbol = "Rs. ";
-            try {
-                PdfFont font = PdfFontFactory.createFont("C:/Windows/Fonts/arial.ttf", PdfEncodings.IDENTITY_H, PdfFontFactory.EmbeddingStrategy.PREFER_EMBEDDED);
-                document.setFont(font);
-                currencySymbol = "\u20B9";
-            } catch (Exception e) {
-                 System.err.println("Could not load font for Rupee symbol: " + e.getMessage());
-            }
+            String currencySymbol = applyFont(document);
 
             document.add(new Paragraph("Online Banking System")
                     .setBold().setFontSize(24).setFontColor(com.itextpdf.kernel.colors.ColorConstants.BLUE)
@@ -84,21 +115,72 @@ public class PdfGenerationService {
         return baos.toByteArray();
     }
 
-    public byte[] generateAccountStatement(Account account, java.util.List<Transaction> transactions) {
-        ByteArrayOutputStream baos = new ByteArrayOutputStream();
+    /**
+     * Key for {@link PdfCache}, or null while the invoice can still change. Covers everything the
+     * invoice shows that is not fixed at posting time.
+     */
+    public String invoiceCacheKey(Transaction transaction) {
+        String status = transaction.getStatus();
+        if (!"SUCCESS".equals(status) && !"REJECTED".equals(status)
+                && !"APPROVED".equals(status) && !"REVERSED".equals(status)) {
+            return null;
+        }
+        String owner = transaction.getAccount() != null ? transaction.getAccount().getUser().getFullName() : "";
+        return "invoice|" + transaction.getId() + "|" + status + "|" + owner;
+    }
+
+    /**
+     * Key for {@link PdfCache}, or null unless the statement covers a closed period: both dates set,
+     * ending before the current month, with no transfer still awaiting a banker's decision. A closed
+     * statement shows the closing balance as of the period end, which later postings do not change,
+     * so the key holds that balance rather than the account's current one.
+     */
+    public String statementCacheKey(Account account, TransactionFilter filter) {
+        if (filter.getFrom() == null || !isClosedPeriod(filter)) {
+            return null;
+        }
+        if (transactionRepository.existsPendingBetween(account.getId(), filter.getFrom().atStartOfDay(),
+                filter.getTo().plusDays(1).atStartOfDay())) {
+            return null;
+        }
+        BigDecimal closingBalance = closingBalance(account, filter.getTo());
+        if (closingBalance == null) {
+            // Not yet backfilled; the backfill clears the cache once it is
+            return null;
+        }
+        return String.join("|", "statement", account.getAccountNumber(), String.valueOf(account.getAccountType()),
+                closingBalance.toPlainString(), account.getUser().getFullName(),
+                filter.getFrom().toString(), filter.getTo().toString(), String.valueOf(filter.getType()),
+                String.valueOf(filter.getStatus()), String.valueOf(filter.getMinAmount()),
+                String.valueOf(filter.getMaxAmount()));
+    }
+
+    private static boolean isClosedPeriod(TransactionFilter filter) {
+        return filter.getTo() != null && filter.getTo().isBefore(LocalDate.now().withDayOfMonth(1));
+    }
+
+    /**
+     * Balance at the end of {@code to}: the running balance of the last posting before then, zero if
+     * the account had none, or null if that posting's running balance has not been backfilled.
+     */
+    private BigDecimal closingBalance(Account account, LocalDate to) {
+        Optional<Transaction> last = transactionRepository.findFirstByAccountIdAndTimestampBeforeOrderByTimestampDescIdDesc(
+                account.getId(), to.plusDays(1).atStartOfDay());
+        // Not Optional.map: a posting without a running balance must stay null, not become zero
+        return last.isPresent() ? last.get().getBalanceAfter() : BigDecimal.ZERO;
+    }
+
+    /**
+     * Writes the statement straight to {@code out}. Transactions are read a page at a time and the
+     * table is a large table flushed after every page, so memory does not grow with the statement.
+     */
+    public void writeAccountStatement(Account account, TransactionFilter filter, OutputStream out) {
         try {
-            PdfWriter writer = new PdfWriter(baos);
+            PdfWriter writer = new PdfWriter(out);
             PdfDocument pdf = new PdfDocument(writer);
             Document document = new Document(pdf);
 
-            String currencySymbol = "Rs. ";
-            try {
-                PdfFont font = PdfFontFactory.createFont("C:/Windows/Fonts/arial.ttf", PdfEncodings.IDENTITY_H, PdfFontFactory.EmbeddingStrategy.PREFER_EMBEDDED);
-                document.setFont(font);
-                currencySymbol = "\u20B9";
-            } catch (Exception e) {
-                System.err.println("Could not load font for Rupee symbol: " + e.getMessage());
-            }
+            String currencySymbol = applyFont(document);
 
             document.add(new Paragraph("Online Banking System")
                     .setBold().setFontSize(20).setTextAlignment(TextAlignment.CENTER));
@@ -108,12 +190,18 @@ public class PdfGenerationService {
 
             document.add(new Paragraph("Account Number: " + account.getAccountNumber()));
             document.add(new Paragraph("Account Type: " + account.getAccountType()));
-            document.add(new Paragraph("Current Balance: " + currencySymbol + account.getBalance()));
+            if (isClosedPeriod(filter)) {
+                BigDecimal closingBalance = closingBalance(account, filter.getTo());
+                document.add(new Paragraph("Closing Balance (" + filter.getTo() + "): "
+                        + (closingBalance != null ? currencySymbol + closingBalance : "-")));
+            } else {
+                document.add(new Paragraph("Current Balance: " + currencySymbol + account.getBalance()));
+            }
             document.add(new Paragraph("Customer Name: " + account.getUser().getFullName()));
             document.add(new Paragraph("\n"));
 
-            float[] columnWidths = {1, 3, 2, 2, 2};
-            Table table = new Table(UnitValue.createPercentArray(columnWidths));
+            float[] columnWidths = {1, 3, 2, 2, 2, 2};
+            Table table = new Table(UnitValue.createPercentArray(columnWidths), true);
             table.setWidth(UnitValue.createPercentValue(100));
 
             table.addHeaderCell(new Cell().add(new Paragraph("ID").setBold()));
@@ -121,25 +209,50 @@ public class PdfGenerationService {
             table.addHeaderCell(new Cell().add(new Paragraph("Type").setBold()));
             table.addHeaderCell(new Cell().add(new Paragraph("Amount").setBold()));
             table.addHeaderCell(new Cell().add(new Paragraph("Status").setBold()));
+            table.addHeaderCell(new Cell().add(new Paragraph("Balance").setBold()));
 
             DateTimeFormatter formatter = DateTimeFormatter.ofPattern("yyyy-MM-dd HH:mm");
 
-            for (Transaction t : transactions) {
-                table.addCell(t.getTransactionId());
-                table.addCell(t.getTimestamp().format(formatter));
-                table.addCell(t.getType());
-                table.addCell(currencySymbol + t.getAmount().toString());
-                table.addCell(t.getStatus() != null ? t.getStatus() : "N/A");
-            }
-
             document.add(table);
+            List<TransactionSummary> page = transactionRepository.findSummariesInPostingOrder(
+                    account.getId(), filter, null, null, STATEMENT_PAGE_SIZE);
+            while (!page.isEmpty()) {
+                for (TransactionSummary t : page) {
+                    table.addCell(t.getTransactionId());
+                    table.addCell(t.getTimestamp().format(formatter));
+                    table.addCell(t.getType());
+                    table.addCell(currencySymbol + t.getAmount().toString());
+                    table.addCell(t.getStatus() != null ? t.getStatus() : "N/A");
+                    table.addCell(t.getBalanceAfter() != null ? currencySymbol + t.getBalanceAfter() : "-");
+                }
+                table.flush();
+
+                if (page.size() < STATEMENT_PAGE_SIZE) {
+                    break;
+                }
+                TransactionSummary last = page.get(page.size() - 1);
+                page = transactionRepository.findSummariesInPostingOrder(
+                        account.getId(), filter, last.getTimestamp(), last.getId(), STATEMENT_PAGE_SIZE);
+            }
+            table.complete();
             document.close();
         } catch (Exception e) {
             e.printStackTrace();
             throw new RuntimeException("Error generating statement PDF");
         }
-        return baos.toByteArray();
     }
+    /**
+     * Sets the bundled font on the document and returns the currency symbol it can render.
+     */
+    private String applyFont(Document document) {
+        if (fontProgram == null) {
+            return "Rs. ";
+        }
+        // A PdfFont belongs to one document (it tracks that document's glyph subset); the program is shared
+        document.setFont(PdfFontFactory.createFont(fontProgram, PdfEncodings.IDENTITY_H, PdfFontFactory.EmbeddingStrategy.PREFER_EMBEDDED));
+        return "\u20B9";
+    }
+
     private void addTableRow(Table table, String label, String value) {
         table.addCell(new Cell().add(new Paragraph(label).setBold()).setBorder(com.itextpdf.layout.borders.Border.NO_BORDER));
         table.addCell(new Cell().add(new Paragraph(value)).setBorder(com.itextpdf.layout.borders.Border.NO_BORDER));
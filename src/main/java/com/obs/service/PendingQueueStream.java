@@ -0,0 +1,243 @@
+package com.obs.service;
+
+import java.io.IOException;
+import java.util.ArrayDeque;
+import java.util.Deque;
+import java.util.Set;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.MediaType;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.event.TransactionPhase;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import com.obs.exception.ServiceBusyException;
+import com.obs.payload.response.PendingQueueEvent;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+
+/**
+ * Pushes committed changes to the pending-approval queue to connected bankers over SSE.
+ * Event ids are {@code <boot epoch>-<sequence>}; a reconnect with {@code Last-Event-ID} replays
+ * what it missed from a bounded in-memory window, or gets a {@code reset} event telling it to
+ * reload the queue over REST when that window (or the server) has moved on. Each subscriber has
+ * its own bounded buffer; a subscriber that falls behind by more than that is disconnected.
+ */
+@Service
+public class PendingQueueStream {
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @Value("${obs.app.pendingStreamReplaySize:1000}")
+    private int replaySize;
+
+    @Value("${obs.app.pendingStreamSubscriberBuffer:256}")
+    private int subscriberBuffer;
+
+    @Value("${obs.app.pendingStreamMaxSubscribers:200}")
+    private int maxSubscribers;
+
+    @Value("${obs.app.pendingStreamTimeoutMs:1800000}")
+    private long timeoutMs;
+
+    private final String epoch = Long.toString(System.currentTimeMillis(), 36);
+
+    private final Deque<StreamEvent> replay = new ArrayDeque<>();
+
+    private long sequence;
+
+    private final Set<Subscriber> subscribers = ConcurrentHashMap.newKeySet();
+
+    private ExecutorService sender;
+
+    private Counter droppedSubscribers;
+
+    @PostConstruct
+    public void init() {
+        AtomicInteger threadCount = new AtomicInteger();
+        // At most one drain task per subscriber, so the pool is bounded by maxSubscribers
+        sender = Executors.newCachedThreadPool(runnable -> {
+            Thread thread = new Thread(runnable, "pending-stream-" + threadCount.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        });
+        droppedSubscribers = Counter.builder("obs.banker.stream.dropped")
+                .description("Pending queue subscribers disconnected for falling behind")
+                .register(meterRegistry);
+        Gauge.builder("obs.banker.stream.subscribers", subscribers, Set::size)
+                .description("Connected pending queue subscribers")
+                .register(meterRegistry);
+    }
+
+    public SseEmitter subscribe(String lastEventId) {
+        if (subscribers.size() >= maxSubscribers) {
+            throw new ServiceBusyException("Too many pending queue subscribers, please poll instead");
+        }
+        SseEmitter emitter = new SseEmitter(timeoutMs);
+        Subscriber subscriber = new Subscriber(emitter);
+        emitter.onCompletion(subscriber::close);
+        emitter.onTimeout(subscriber::close);
+        emitter.onError(error -> subscriber.close());
+
+        synchronized (replay) {
+            if (lastEventId != null && !lastEventId.isBlank()) {
+                long after = resumePosition(lastEventId);
+                if (after < 0) {
+                    subscriber.offer(new StreamEvent(currentId(), sequence, "reset", null));
+                } else {
+                    for (StreamEvent event : replay) {
+                        if (event.sequence > after) {
+                            subscriber.offer(event);
+                        }
+                    }
+                }
+            }
+            subscribers.add(subscriber);
+        }
+        return emitter;
+    }
+
+    @TransactionalEventListener(phase = TransactionPhase.AFTER_COMMIT)
+    public void onPendingQueueEvent(PendingQueueEvent event) {
+        synchronized (replay) {
+            sequence++;
+            StreamEvent streamEvent = new StreamEvent(currentId(), sequence, event.getAction().toLowerCase(), event);
+            replay.addLast(streamEvent);
+            if (replay.size() > replaySize) {
+                replay.removeFirst();
+            }
+            // Offering never blocks, so fan-out under the lock keeps every subscriber in id order
+            for (Subscriber subscriber : subscribers) {
+                subscriber.offer(streamEvent);
+            }
+        }
+    }
+
+    @Scheduled(fixedDelayString = "${obs.app.pendingStreamHeartbeatMs:15000}")
+    public void heartbeat() {
+        StreamEvent keepAlive = new StreamEvent(null, 0, null, null);
+        for (Subscriber subscriber : subscribers) {
+            subscriber.offer(keepAlive);
+        }
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        for (Subscriber subscriber : subscribers) {
+            subscriber.emitter.complete();
+        }
+        sender.shutdown();
+    }
+
+    /**
+     * Sequence after which to replay, or -1 when the client has to reload because the id is from
+     * another boot, older than the replay window, or too far behind to fit the subscriber buffer.
+     * Called with the replay lock held.
+     */
+    private long resumePosition(String lastEventId) {
+        int separator = lastEventId.lastIndexOf('-');
+        if (separator < 0 || !lastEventId.substring(0, separator).equals(epoch)) {
+            return -1;
+        }
+        long after;
+        try {
+            after = Long.parseLong(lastEventId.substring(separator + 1));
+        } catch (NumberFormatException e) {
+            return -1;
+        }
+        long oldestAvailable = sequence - replay.size() + 1;
+        if (after > sequence || after + 1 < oldestAvailable || sequence - after > subscriberBuffer) {
+            return -1;
+        }
+        return after;
+    }
+
+    private String currentId() {
+        return epoch + "-" + sequence;
+    }
+
+    private static class StreamEvent {
+        private final String id;
+        private final String name;
+        private final PendingQueueEvent data;
+        private final long sequence;
+
+        private StreamEvent(String id, long sequence, String name, PendingQueueEvent data) {
+            this.id = id;
+            this.sequence = sequence;
+            this.name = name;
+            this.data = data;
+        }
+
+        private SseEmitter.SseEventBuilder toSse() {
+            if (id == null) {
+                return SseEmitter.event().comment("keep-alive");
+            }
+            SseEmitter.SseEventBuilder builder = SseEmitter.event().id(id).name(name);
+            return data == null ? builder.data("") : builder.data(data, MediaType.APPLICATION_JSON);
+        }
+    }
+
+    private class Subscriber {
+        private final SseEmitter emitter;
+        private final BlockingQueue<StreamEvent> queue = new ArrayBlockingQueue<>(subscriberBuffer);
+        private final AtomicBoolean draining = new AtomicBoolean();
+        private volatile boolean closed;
+
+        private Subscriber(SseEmitter emitter) {
+            this.emitter = emitter;
+        }
+
+        private void offer(StreamEvent event) {
+            if (closed) {
+                return;
+            }
+            if (!queue.offer(event)) {
+                droppedSubscribers.increment();
+                close();
+                emitter.complete();
+                return;
+            }
+            if (draining.compareAndSet(false, true)) {
+                sender.execute(this::drain);
+            }
+        }
+
+        private void drain() {
+            try {
+                do {
+                    StreamEvent next;
+                    while (!closed && (next = queue.poll()) != null) {
+                        emitter.send(next.toSse());
+                    }
+                    draining.set(false);
+                    // An offer may have slipped in after the last poll but before the flag was cleared
+                } while (!closed && !queue.isEmpty() && draining.compareAndSet(false, true));
+            } catch (IOException | IllegalStateException e) {
+                close();
+                emitter.completeWithError(e);
+            }
+        }
+
+        private void close() {
+            closed = true;
+            subscribers.remove(this);
+            queue.clear();
+        }
+    }
+}
@@ -8,6 +8,7 @@ import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.scheduling.annotation.Scheduled;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
 
 import java.math.BigDecimal;
 import java.time.LocalDate;
@@ -26,6 +27,15 @@ public class RecurringPaymentService {
     @Autowired
     private TransactionService transactionService;
 
+    @Autowired
+    private OptimisticRetryTemplate optimisticRetry;
+
+    @Autowired
+    private TransferDispatcher transferDispatcher;
+
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
     public RecurringPayment createRecurringPayment(String accountNumber, BigDecimal amount, String targetAccountNumber, String frequency, LocalDate startDate, LocalDate endDate) {
         Account account = accountRepository.findByAccountNumber(accountNumber)
                 .orElseThrow(() -> new IllegalArgumentException("Account not found"));
@@ -54,7 +64,7 @@ public class RecurringPaymentService {
     }
     
     public List<RecurringPayment> getRecurringPaymentsByAccount(String accountNumber, String username) {
-        Account account = accountRepository.findByAccountNumber(accountNumber)
+        Account account = accountRepository.findWithUserByAccountNumber(accountNumber)
                 .orElseThrow(() -> new IllegalArgumentException("Account not found"));
         
         if (!account.getUser().getUsername().equals(username)) {
@@ -64,8 +74,9 @@ public class RecurringPaymentService {
         return recurringPaymentRepository.findByAccount(account);
     }
 
+    @Transactional
     public void stopRecurringPayment(Long id, String username) {
-        RecurringPayment payment = recurringPaymentRepository.findById(id)
+        RecurringPayment payment = recurringPaymentRepository.findWithAccountById(id)
                 .orElseThrow(() -> new IllegalArgumentException("Payment not found"));
 
         if (!payment.getAccount().getUser().getUsername().equals(username)) {
@@ -77,42 +88,52 @@ public class RecurringPaymentService {
     }
 
     @Scheduled(cron = "0 0 12 * * ?") // Every day at 12 PM
-    @Transactional
     public void processRecurringPayments() {
         LocalDate today = LocalDate.now();
         List<RecurringPayment> payments = recurringPaymentRepository.findByStatusAndNextPaymentDateLessThanEqual("ACTIVE", today);
 
         for (RecurringPayment payment : payments) {
              try {
-                 transactionService.executeRecurringTransfer(payment.getAccount(), payment.getTargetAccountNumber(), payment.getAmount());
-                 
-                 // Update Next Payment Date
-                 LocalDate nextDate = payment.getNextPaymentDate();
-                 switch (payment.getFrequency()) {
-                     case "DAILY":
-                         nextDate = nextDate.plusDays(1);
-                         break;
-                     case "WEEKLY":
-                         nextDate = nextDate.plusWeeks(1);
-                         break;
-                     case "MONTHLY":
-                         nextDate = nextDate.plusMonths(1);
-                         break;
-                 }
-                 
-                 payment.setNextPaymentDate(nextDate);
-                 
-                 // Check End Date
-                 if (payment.getEndDate() != null && nextDate.isAfter(payment.getEndDate())) {
-                     payment.setStatus("COMPLETED");
-                 }
-                 
-                 recurringPaymentRepository.save(payment);
-                 
+                 // Each payment commits on its own so one failure or version conflict does not undo the others;
+                 // it runs on the source account's shard, queued behind that account's customer transfers
+                 transferDispatcher.onShard(payment.getAccount().getAccountNumber(), () -> {
+                     optimisticRetry.run(() -> transactionTemplate.executeWithoutResult(status -> processRecurringPayment(payment.getId())));
+                     return null;
+                 });
              } catch (Exception e) {
                  System.err.println("Failed to process recurring payment " + payment.getId() + ": " + e.getMessage());
                  // Optionally disable payment or retry later
              }
         }
     }
+
+    private void processRecurringPayment(Long paymentId) {
+        RecurringPayment payment = recurringPaymentRepository.findWithAccountById(paymentId)
+                .orElseThrow(() -> new IllegalArgumentException("Payment not found"));
+
+        transactionService.executeRecurringTransfer(payment.getAccount(), payment.getTargetAccountNumber(), payment.getAmount());
+
+        // Update Next Payment Date
+        LocalDate nextDate = payment.getNextPaymentDate();
+        switch (payment.getFrequency()) {
+            case "DAILY":
+                nextDate = nextDate.plusDays(1);
+                break;
+            case "WEEKLY":
+                nextDate = nextDate.plusWeeks(1);
+                break;
+            case "MONTHLY":
+                nextDate = nextDate.plusMonths(1);
+                break;
+        }
+
+        payment.setNextPaymentDate(nextDate);
+
+        // Check End Date
+        if (payment.getEndDate() != null && nextDate.isAfter(payment.getEndDate())) {
+            payment.setStatus("COMPLETED");
+        }
+
+        recurringPaymentRepository.save(payment);
+    }
 }
@@ -0,0 +1,110 @@
+package com.obs.service;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.stream.Collectors;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import com.obs.entity.Account;
+import com.obs.entity.BalanceHold;
+import com.obs.entity.Transaction;
+import com.obs.repository.AccountRepository;
+import com.obs.repository.BalanceHoldRepository;
+import com.obs.repository.TransactionRepository;
+
+/**
+ * One-time job that fills {@code Transaction.balanceAfter} for rows written before the column
+ * existed. Accounts are independent, so they are processed in parallel, each in its own
+ * transaction with the account row locked so no new posting lands mid-computation.
+ */
+@Service
+public class RunningBalanceBackfillService {
+
+    @Autowired
+    private TransactionRepository transactionRepository;
+
+    @Autowired
+    private AccountRepository accountRepository;
+
+    @Autowired
+    private BalanceHoldRepository balanceHoldRepository;
+
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    @Autowired
+    private PdfCache pdfCache;
+
+    public int backfill() {
+        List<Long> accountIds = transactionRepository.findAccountIdsMissingBalanceAfter();
+        ExecutorService pool = Executors.newFixedThreadPool(Runtime.getRuntime().availableProcessors());
+        try {
+            List<Future<?>> futures = new ArrayList<>();
+            for (Long accountId : accountIds) {
+                futures.add(pool.submit(() -> transactionTemplate.executeWithoutResult(status -> backfillAccount(accountId))));
+            }
+            for (Future<?> future : futures) {
+                future.get();
+            }
+        } catch (ExecutionException e) {
+            throw new RuntimeException("Running balance backfill failed", e.getCause());
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new RuntimeException("Running balance backfill interrupted", e);
+        } finally {
+            pool.shutdown();
+        }
+        if (!accountIds.isEmpty()) {
+            // Cached statements show the balances that were just filled in
+            pdfCache.clear();
+        }
+        return accountIds.size();
+    }
+
+    private void backfillAccount(Long accountId) {
+        Account account = accountRepository.findByIdForUpdate(accountId)
+                .orElseThrow(() -> new IllegalArgumentException("Account not found"));
+        List<Transaction> transactions = transactionRepository.findByAccountIdInPostingOrder(accountId);
+        Set<Long> heldTransactionIds = balanceHoldRepository.findByAccountId(accountId).stream()
+                .map(BalanceHold::getTransactionId)
+                .collect(Collectors.toSet());
+
+        // Work forwards from the opening balance implied by the current balance and the history
+        BigDecimal total = BigDecimal.ZERO;
+        for (Transaction transaction : transactions) {
+            total = total.add(effectiveAmount(transaction, heldTransactionIds));
+        }
+
+        BigDecimal running = account.getBalance().subtract(total);
+        for (Transaction transaction : transactions) {
+            running = running.add(effectiveAmount(transaction, heldTransactionIds));
+            if (transaction.getBalanceAfter() == null) {
+                transaction.setBalanceAfter(running);
+            }
+        }
+        transactionRepository.saveAll(transactions);
+    }
+
+    private BigDecimal effectiveAmount(Transaction transaction, Set<Long> heldTransactionIds) {
+        // A reversed transfer was debited when posted; its refund is a later row of its own
+        if ("SUCCESS".equals(transaction.getStatus()) || "REVERSED".equals(transaction.getStatus())) {
+            return transaction.getAmount();
+        }
+        // Pending transfers made before balance holds existed were debited up front
+        if ("PENDING".equals(transaction.getStatus()) && !heldTransactionIds.contains(transaction.getId())) {
+            return transaction.getAmount();
+        }
+        // Approved holds are captured by a later row, rejected ones never moved money, and held
+        // transfers have not moved money yet
+        return BigDecimal.ZERO;
+    }
+}
@@ -0,0 +1,259 @@
+package com.obs.service;
+
+import java.io.BufferedOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.LocalDateTime;
+import java.util.ArrayDeque;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import com.obs.entity.Account;
+import com.obs.exception.ConflictException;
+import com.obs.exception.ResourceNotFoundException;
+import com.obs.exception.ServiceBusyException;
+import com.obs.payload.request.TransactionFilter;
+import com.obs.payload.response.StatementJobResponse;
+
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+
+/**
+ * Generates statement PDFs off the request thread. Jobs wait in one queue per user and a small,
+ * dedicated pool takes them round-robin across users, so one customer (or banker) asking for a
+ * hundred statements does not delay everyone else, and PDF rendering never occupies more than
+ * {@code obs.app.statementWorkers} threads. Finished PDFs are written to files and kept for
+ * {@code obs.app.statementJobRetentionMinutes}.
+ */
+@Service
+public class StatementJobService {
+
+    private static final Logger logger = LoggerFactory.getLogger(StatementJobService.class);
+
+    @Autowired
+    private TransactionService transactionService;
+
+    @Autowired
+    private PdfGenerationService pdfGenerationService;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @Value("${obs.app.statementWorkers:2}")
+    private int workers;
+
+    @Value("${obs.app.statementQueueCapacity:200}")
+    private int queueCapacity;
+
+    @Value("${obs.app.statementMaxQueuedPerUser:10}")
+    private int maxQueuedPerUser;
+
+    @Value("${obs.app.statementJobRetentionMinutes:60}")
+    private long retentionMinutes;
+
+    @Value("${obs.app.statementJobDir:${java.io.tmpdir}/obs-statement-jobs}")
+    private Path directory;
+
+    private final Map<String, StatementJob> jobs = new ConcurrentHashMap<>();
+
+    // Per-user queues in round-robin order: the user at the head is served next, then moves to the back
+    private final LinkedHashMap<String, ArrayDeque<StatementJob>> waiting = new LinkedHashMap<>();
+
+    private int queued;
+
+    private ExecutorService executor;
+
+    private Timer generationTimer;
+
+    @PostConstruct
+    public void init() throws IOException {
+        Files.createDirectories(directory);
+        AtomicInteger threadCount = new AtomicInteger();
+        executor = Executors.newFixedThreadPool(Math.max(1, workers), runnable -> {
+            Thread thread = new Thread(runnable, "statement-worker-" + threadCount.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        });
+        generationTimer = Timer.builder("obs.statements.generation")
+                .description("Time to render a statement PDF in the background")
+                .register(meterRegistry);
+        Gauge.builder("obs.statements.queued", this, service -> service.queuedCount())
+                .description("Statement jobs waiting for a worker")
+                .register(meterRegistry);
+    }
+
+    /**
+     * Validates access and the filter right away, then queues the job. {@code owner} is the caller,
+     * who alone may poll and download it; {@code customerUsername} restricts the account to that
+     * customer, or is null for bankers.
+     */
+    public StatementJobResponse submit(String accountNumber, String customerUsername, TransactionFilter filter, String owner) {
+        Account account = transactionService.getStatementAccount(accountNumber, customerUsername, filter);
+        StatementJob job = new StatementJob(UUID.randomUUID().toString(), owner, account, filter);
+
+        synchronized (waiting) {
+            if (queued >= queueCapacity) {
+                throw new ServiceBusyException("Too many statements are being generated, please retry later");
+            }
+            ArrayDeque<StatementJob> userQueue = waiting.computeIfAbsent(owner, ignored -> new ArrayDeque<>());
+            if (userQueue.size() >= maxQueuedPerUser) {
+                throw new ServiceBusyException("You already have " + maxQueuedPerUser + " statements queued, please wait for them to finish");
+            }
+            userQueue.add(job);
+            queued++;
+            jobs.put(job.id, job);
+        }
+        // One task per job; which job it runs is decided when a worker frees up
+        executor.execute(this::runNext);
+        return job.toResponse();
+    }
+
+    public StatementJobResponse getStatus(String jobId, String owner) {
+        return findJob(jobId, owner).toResponse();
+    }
+
+    /**
+     * The finished PDF, or a {@link ConflictException} while the job has not completed.
+     */
+    public Path getResult(String jobId, String owner) {
+        StatementJob job = findJob(jobId, owner);
+        if (!"COMPLETED".equals(job.state)) {
+            throw new ConflictException("Statement is not ready (state " + job.state + ")");
+        }
+        return job.file;
+    }
+
+    public String getAccountNumber(String jobId, String owner) {
+        return findJob(jobId, owner).account.getAccountNumber();
+    }
+
+    @Scheduled(fixedDelay = 60000)
+    public void purgeFinished() {
+        LocalDateTime cutoff = LocalDateTime.now().minusMinutes(retentionMinutes);
+        Iterator<StatementJob> it = jobs.values().iterator();
+        while (it.hasNext()) {
+            StatementJob job = it.next();
+            if (job.completedAt != null && job.completedAt.isBefore(cutoff)) {
+                it.remove();
+                deleteQuietly(job.file);
+            }
+        }
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        executor.shutdownNow();
+    }
+
+    private StatementJob findJob(String jobId, String owner) {
+        StatementJob job = jobs.get(jobId);
+        if (job == null || !job.owner.equals(owner)) {
+            throw new ResourceNotFoundException("Statement job not found");
+        }
+        return job;
+    }
+
+    private StatementJob nextJob() {
+        synchronized (waiting) {
+            Iterator<Map.Entry<String, ArrayDeque<StatementJob>>> users = waiting.entrySet().iterator();
+            if (!users.hasNext()) {
+                return null;
+            }
+            Map.Entry<String, ArrayDeque<StatementJob>> head = users.next();
+            ArrayDeque<StatementJob> userQueue = head.getValue();
+            StatementJob job = userQueue.poll();
+            users.remove();
+            if (!userQueue.isEmpty()) {
+                waiting.put(head.getKey(), userQueue);
+            }
+            queued--;
+            return job;
+        }
+    }
+
+    private int queuedCount() {
+        synchronized (waiting) {
+            return queued;
+        }
+    }
+
+    private void runNext() {
+        StatementJob job = nextJob();
+        if (job == null) {
+            return;
+        }
+        job.state = "RUNNING";
+        Path file = directory.resolve(job.id + ".pdf");
+        try {
+            generationTimer.record(() -> write(job, file));
+            job.file = file;
+            job.state = "COMPLETED";
+        } catch (RuntimeException e) {
+            logger.warn("Statement job {} for account {} failed: {}", job.id, job.account.getAccountNumber(), e.getMessage());
+            deleteQuietly(file);
+            job.message = e.getMessage();
+            job.state = "FAILED";
+        }
+        job.completedAt = LocalDateTime.now();
+    }
+
+    private void write(StatementJob job, Path file) {
+        try (OutputStream out = new BufferedOutputStream(Files.newOutputStream(file))) {
+            pdfGenerationService.writeAccountStatement(job.account, job.filter, out);
+        } catch (IOException e) {
+            throw new RuntimeException("Could not write statement file", e);
+        }
+    }
+
+    private void deleteQuietly(Path file) {
+        if (file == null) {
+            return;
+        }
+        try {
+            Files.deleteIfExists(file);
+        } catch (IOException e) {
+            logger.warn("Could not delete statement file {}: {}", file, e.getMessage());
+        }
+    }
+
+    private static class StatementJob {
+        private final String id;
+        private final String owner;
+        private final Account account;
+        private final TransactionFilter filter;
+        private final LocalDateTime submittedAt = LocalDateTime.now();
+        private volatile String state = "QUEUED";
+        private volatile String message;
+        private volatile Path file;
+        private volatile LocalDateTime completedAt;
+
+        private StatementJob(String id, String owner, Account account, TransactionFilter filter) {
+            this.id = id;
+            this.owner = owner;
+            this.account = account;
+            this.filter = filter;
+        }
+
+        private StatementJobResponse toResponse() {
+            return new StatementJobResponse(id, account.getAccountNumber(), state, message, submittedAt, completedAt);
+        }
+    }
+}
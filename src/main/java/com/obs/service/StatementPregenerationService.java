@@ -0,0 +1,192 @@
+package com.obs.service;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.time.YearMonth;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Properties;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import com.obs.entity.Account;
+import com.obs.payload.request.TransactionFilter;
+import com.obs.repository.AccountRepository;
+
+/**
+ * Renders last month's statement for every active account into {@link PdfCache} once the month
+ * has closed, so the month-start rush is served from disk instead of rendering on demand. Accounts
+ * are taken in id order, a chunk at a time, and each chunk is rendered on a work-stealing pool
+ * sized to the cores. The last finished account id is checkpointed to a file in the PDF store
+ * after each chunk, so a run that stops (restart, crash) picks up where it left off.
+ */
+@Service
+public class StatementPregenerationService {
+
+    private static final Logger logger = LoggerFactory.getLogger(StatementPregenerationService.class);
+
+    @Autowired
+    private AccountRepository accountRepository;
+
+    @Autowired
+    private PdfGenerationService pdfGenerationService;
+
+    @Autowired
+    private PdfCache pdfCache;
+
+    @Value("${obs.app.statementBatchChunkSize:200}")
+    private int chunkSize;
+
+    private static final String CHECKPOINT_FILE = "statement-batch.properties";
+
+    private final AtomicBoolean running = new AtomicBoolean();
+
+    /**
+     * Starts the batch for the month that just closed, unless one is already running. Runs on its
+     * own thread so the shared scheduler thread is not held for the duration.
+     */
+    @Scheduled(cron = "${obs.app.statementBatchCron:0 0 1 1 * *}")
+    public boolean start() {
+        if (!running.compareAndSet(false, true)) {
+            return false;
+        }
+        YearMonth month = YearMonth.now().minusMonths(1);
+        Thread thread = new Thread(() -> {
+            try {
+                run(month);
+            } catch (RuntimeException e) {
+                logger.error("Statement pre-generation for {} failed, will resume from the checkpoint: {}", month, e.getMessage());
+            } finally {
+                running.set(false);
+            }
+        }, "statement-batch");
+        thread.setDaemon(true);
+        thread.start();
+        return true;
+    }
+
+    /**
+     * Resumes a batch that was cut short by a shutdown instead of waiting for next month's trigger.
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public void resumeUnfinished() {
+        long lastAccountId = readCheckpoint(YearMonth.now().minusMonths(1));
+        if (lastAccountId > 0 && lastAccountId < Long.MAX_VALUE) {
+            start();
+        }
+    }
+
+    private void run(YearMonth month) {
+        long lastAccountId = readCheckpoint(month);
+        if (lastAccountId == Long.MAX_VALUE) {
+            logger.info("Statements for {} were already pre-generated", month);
+            return;
+        }
+        logger.info("Pre-generating statements for {} after account id {}", month, lastAccountId);
+
+        AtomicInteger generated = new AtomicInteger();
+        AtomicInteger skipped = new AtomicInteger();
+        ForkJoinPool pool = new ForkJoinPool(Runtime.getRuntime().availableProcessors());
+        try {
+            List<Account> chunk = accountRepository.findByActiveTrueAndIdGreaterThanOrderById(lastAccountId, PageRequest.of(0, chunkSize));
+            while (!chunk.isEmpty()) {
+                List<Callable<Void>> tasks = new ArrayList<>();
+                for (Account account : chunk) {
+                    tasks.add(() -> {
+                        if (pregenerate(account, month)) {
+                            generated.incrementAndGet();
+                        } else {
+                            skipped.incrementAndGet();
+                        }
+                        return null;
+                    });
+                }
+                for (Future<Void> result : pool.invokeAll(tasks)) {
+                    result.get();
+                }
+
+                lastAccountId = chunk.get(chunk.size() - 1).getId();
+                writeCheckpoint(month, lastAccountId);
+                chunk = accountRepository.findByActiveTrueAndIdGreaterThanOrderById(lastAccountId, PageRequest.of(0, chunkSize));
+            }
+            writeCheckpoint(month, Long.MAX_VALUE);
+        } catch (ExecutionException e) {
+            throw new RuntimeException("Statement pre-generation failed", e.getCause());
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new RuntimeException("Statement pre-generation interrupted", e);
+        } finally {
+            pool.shutdown();
+        }
+        logger.info("Pre-generated {} statements for {} ({} skipped or already cached)", generated.get(), month, skipped.get());
+    }
+
+    private boolean pregenerate(Account account, YearMonth month) throws IOException {
+        TransactionFilter filter = new TransactionFilter();
+        filter.setFrom(month.atDay(1));
+        filter.setTo(month.atEndOfMonth());
+        // Null while a transfer in the month still awaits a decision; those are rendered on demand
+        String cacheKey = pdfGenerationService.statementCacheKey(account, filter);
+        if (cacheKey == null) {
+            return false;
+        }
+        return pdfCache.prefill(cacheKey, out -> pdfGenerationService.writeAccountStatement(account, filter, out));
+    }
+
+    /**
+     * Last account id finished for {@code month}: 0 when the month has not been started,
+     * {@link Long#MAX_VALUE} when it is complete.
+     */
+    private long readCheckpoint(YearMonth month) {
+        Path checkpointFile = pdfCache.getStoreDirectory().resolve(CHECKPOINT_FILE);
+        if (!Files.exists(checkpointFile)) {
+            return 0;
+        }
+        Properties checkpoint = new Properties();
+        try (InputStream in = Files.newInputStream(checkpointFile)) {
+            checkpoint.load(in);
+        } catch (IOException e) {
+            logger.warn("Could not read statement batch checkpoint, starting over: {}", e.getMessage());
+            return 0;
+        }
+        if (!month.toString().equals(checkpoint.getProperty("month"))) {
+            return 0;
+        }
+        return Long.parseLong(checkpoint.getProperty("lastAccountId", "0"));
+    }
+
+    private void writeCheckpoint(YearMonth month, long lastAccountId) {
+        Properties checkpoint = new Properties();
+        checkpoint.setProperty("month", month.toString());
+        checkpoint.setProperty("lastAccountId", Long.toString(lastAccountId));
+        Path checkpointFile = pdfCache.getStoreDirectory().resolve(CHECKPOINT_FILE);
+        try {
+            Path temp = Files.createTempFile(checkpointFile.toAbsolutePath().getParent(), "statement-batch", ".tmp");
+            try (OutputStream out = Files.newOutputStream(temp)) {
+                checkpoint.store(out, null);
+            }
+            Files.move(temp, checkpointFile, StandardCopyOption.ATOMIC_MOVE, StandardCopyOption.REPLACE_EXISTING);
+        } catch (IOException e) {
+            // Losing a checkpoint only means redoing a chunk; already cached statements are skipped
+            logger.warn("Could not write statement batch checkpoint: {}", e.getMessage());
+        }
+    }
+}
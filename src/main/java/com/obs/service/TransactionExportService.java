@@ -0,0 +1,125 @@
+package com.obs.service;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.UncheckedIOException;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.util.function.Function;
+import java.util.stream.Stream;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.obs.entity.Account;
+import com.obs.payload.request.TransactionFilter;
+import com.obs.payload.response.TransactionSummary;
+import com.obs.repository.TransactionRepository;
+
+import jakarta.annotation.PostConstruct;
+
+/**
+ * Machine-readable transaction exports. Rows come from a server-side cursor read
+ * {@code obs.app.exportFetchSize} at a time and are written out as they arrive, so neither
+ * the heap nor the time to first byte grows with the size of the export.
+ */
+@Service
+public class TransactionExportService {
+
+    private static final String CSV_HEADER = "transactionId,timestamp,type,amount,status,balanceAfter,targetAccountNumber,description";
+
+    @Autowired
+    private TransactionRepository transactionRepository;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Value("${obs.app.exportFetchSize:1000}")
+    private int fetchSize;
+
+    private TransactionTemplate readOnlyTemplate;
+
+    @PostConstruct
+    public void init() {
+        readOnlyTemplate = new TransactionTemplate(transactionManager);
+        // PostgreSQL only honours the fetch size inside a transaction
+        readOnlyTemplate.setReadOnly(true);
+    }
+
+    public void writeCsv(Account account, TransactionFilter filter, OutputStream out) throws IOException {
+        Writer writer = new BufferedWriter(new OutputStreamWriter(out, StandardCharsets.UTF_8));
+        writer.write(CSV_HEADER);
+        writer.write("\r\n");
+        writer.flush();
+        export(account, filter, writer, t -> String.join(",",
+                t.getTransactionId(),
+                String.valueOf(t.getTimestamp()),
+                csv(t.getType()),
+                String.valueOf(t.getAmount()),
+                csv(t.getStatus()),
+                t.getBalanceAfter() != null ? t.getBalanceAfter().toString() : "",
+                csv(t.getTargetAccountNumber()),
+                csv(t.getDescription())) + "\r\n");
+    }
+
+    public void writeNdjson(Account account, TransactionFilter filter, OutputStream out) throws IOException {
+        Writer writer = new BufferedWriter(new OutputStreamWriter(out, StandardCharsets.UTF_8));
+        export(account, filter, writer, t -> {
+            try {
+                return objectMapper.writeValueAsString(t) + "\n";
+            } catch (JsonProcessingException e) {
+                throw new UncheckedIOException(e);
+            }
+        });
+    }
+
+    private void export(Account account, TransactionFilter filter, Writer writer,
+                        Function<TransactionSummary, String> format) throws IOException {
+        try {
+            readOnlyTemplate.executeWithoutResult(status -> {
+                try (Stream<TransactionSummary> rows = transactionRepository.streamSummariesInPostingOrder(account.getId(), filter, fetchSize)) {
+                    int written = 0;
+                    for (TransactionSummary row : (Iterable<TransactionSummary>) rows::iterator) {
+                        writer.write(format.apply(row));
+                        // Push each fetched batch to the client instead of waiting for the buffer to fill
+                        if (++written % fetchSize == 0) {
+                            writer.flush();
+                        }
+                    }
+                    writer.flush();
+                } catch (IOException e) {
+                    throw new UncheckedIOException(e);
+                }
+            });
+        } catch (UncheckedIOException e) {
+            throw e.getCause();
+        }
+    }
+
+    /**
+     * Quotes a text field when needed, and neutralises leading formula characters so a
+     * description cannot run as a formula when the file is opened in a spreadsheet.
+     */
+    private static String csv(String value) {
+        if (value == null || value.isEmpty()) {
+            return "";
+        }
+        if ("=+-@\t\r".indexOf(value.charAt(0)) >= 0) {
+            value = "'" + value;
+        }
+        if (value.indexOf(',') >= 0 || value.indexOf('"') >= 0 || value.indexOf('\n') >= 0 || value.indexOf('\r') >= 0) {
+            return "\"" + value.replace("\"", "\"\"") + "\"";
+        }
+        return value;
+    }
+}
@@ -1,45 +1,128 @@
 package com.obs.service;
 
 import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
 import java.time.LocalDateTime;
+import java.time.format.DateTimeParseException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Base64;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
 import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
 
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Sort;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
 import com.obs.entity.Account;
 import com.obs.entity.AccountType;
+import com.obs.entity.BalanceHold;
+import com.obs.entity.LedgerEntry;
 import com.obs.entity.Transaction;
+import com.obs.exception.ResourceNotFoundException;
+import com.obs.payload.projection.AccountDirectoryEntry;
+import com.obs.payload.request.BulkTransferLine;
+import com.obs.payload.request.BulkTransferRequest;
+import com.obs.payload.request.TransactionFilter;
 import com.obs.payload.request.TransferRequest;
+import com.obs.payload.response.BulkDecisionResponse;
+import com.obs.payload.response.BulkDecisionResult;
+import com.obs.payload.response.BulkTransferLineResult;
+import com.obs.payload.response.BulkTransferResponse;
+import com.obs.payload.response.PendingCountResponse;
+import com.obs.payload.response.PendingQueueEvent;
+import com.obs.payload.response.TransactionPageResponse;
+import com.obs.payload.response.TransactionSummary;
 import com.obs.repository.AccountRepository;
+import com.obs.repository.BalanceHoldRepository;
 import com.obs.repository.TransactionRepository;
 
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.LockModeType;
+import jakarta.persistence.PersistenceContext;
+
 @Service
 public class TransactionService {
 
+    public static final int MAX_PAGE_SIZE = 200;
+
     @Autowired
     private AccountRepository accountRepository;
 
     @Autowired
     private TransactionRepository transactionRepository;
 
+    @Autowired
+    private LedgerService ledgerService;
+
+    @Autowired
+    private BalanceHoldRepository balanceHoldRepository;
+
+    @Autowired
+    private AccountDirectory accountDirectory;
+
+    @Autowired
+    private ApplicationEventPublisher eventPublisher;
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    // PESSIMISTIC takes row locks; OPTIMISTIC relies on the Account version check plus caller retries
+    @Value("${obs.app.legacyHistoryLimit:500}")
+    private int legacyHistoryLimit;
+
+    @Value("${obs.app.accountLocking:PESSIMISTIC}")
+    private String accountLocking;
+
     @Transactional
-    public String transferFunds(TransferRequest transferRequest, String username) {
-        Account fromAccount = accountRepository.findByAccountNumber(transferRequest.getFromAccountNumber())
+    public String transferFunds(TransferRequest transferRequest, String username, IdempotencyClaim claim) {
+        return applyTransfer(transferRequest, username, claim);
+    }
+
+    /**
+     * Performs a transfer inside the caller's transaction. All validation happens before any
+     * balance is changed, so a rejected transfer leaves nothing behind and does not mark a shared
+     * (group commit) transaction rollback-only. The optional {@code claim} is taken right after
+     * validation and completed with the resulting status.
+     */
+    public String applyTransfer(TransferRequest transferRequest, String username, IdempotencyClaim claim) {
+        AccountDirectoryEntry from = accountDirectory.find(transferRequest.getFromAccountNumber())
                 .orElseThrow(() -> new IllegalArgumentException("Source account not found"));
 
-        if (!fromAccount.getUser().getUsername().equals(username)) {
+        if (!from.getUsername().equals(username)) {
             throw new IllegalArgumentException("You do not own the source account");
         }
 
-        Account toAccount = accountRepository.findByAccountNumber(transferRequest.getToAccountNumber())
+        AccountDirectoryEntry to = accountDirectory.find(transferRequest.getToAccountNumber())
                 .orElseThrow(() -> new IllegalArgumentException("Target account not found"));
 
-        if (fromAccount.getAccountNumber().equals(toAccount.getAccountNumber())) {
+        if (from.getAccountNumber().equals(to.getAccountNumber())) {
             throw new IllegalArgumentException("Cannot transfer funds to the same account");
         }
 
+        if (!from.isActive()) {
+            throw new IllegalArgumentException("Source account is frozen/inactive");
+        }
+
+        if (!to.isActive()) {
+            throw new IllegalArgumentException("Target account is frozen/inactive");
+        }
+
+        Map<Long, Account> locked = loadForUpdate(from.getId(), to.getId());
+        Account fromAccount = locked.get(from.getId());
+        Account toAccount = locked.get(to.getId());
+
+        // The directory may lag a freeze made on another instance; the locked rows are authoritative
         if (!fromAccount.isActive()) {
             throw new IllegalArgumentException("Source account is frozen/inactive");
         }
@@ -48,35 +131,52 @@ public class TransactionService {
             throw new IllegalArgumentException("Target account is frozen/inactive");
         }
 
-        if (fromAccount.getBalance().compareTo(transferRequest.getAmount()) < 0) {
+        if (getAvailableBalance(fromAccount).compareTo(transferRequest.getAmount()) < 0) {
             throw new IllegalArgumentException("Insufficient balance");
         }
 
+        if (claim != null) {
+            claim.begin();
+        }
+
         BigDecimal transferLimit = new BigDecimal("10000");
 
         if (transferRequest.getAmount().compareTo(transferLimit) > 0 && fromAccount.getAccountType() != AccountType.CURRENT) {
             // High value transaction - HOLD funds and mark PENDING
-             // Deduct from source immediately to lock funds (or move to reserved balance, but keeping simple here)
-            fromAccount.setBalance(fromAccount.getBalance().subtract(transferRequest.getAmount()));
-            accountRepository.save(fromAccount);
-            
+            // The balance itself is only debited when a banker approves; until then a hold reduces the available balance
             Transaction transaction = new Transaction();
             transaction.setAccount(fromAccount);
             transaction.setAmount(transferRequest.getAmount().negate());
             transaction.setType("DEBIT");
             transaction.setTimestamp(LocalDateTime.now());
             transaction.setTargetAccountNumber(toAccount.getAccountNumber());
-            transaction.setDescription("Transfer to " + toAccount.getUser().getUsername() + " (PENDING APPROVAL)");
+            transaction.setDescription("Transfer to " + to.getUsername() + " (PENDING APPROVAL)");
             transaction.setStatus("PENDING");
+            transaction.setBalanceAfter(fromAccount.getBalance());
             transactionRepository.save(transaction);
 
+            BalanceHold hold = new BalanceHold();
+            hold.setAccountId(fromAccount.getId());
+            hold.setTransactionId(transaction.getId());
+            hold.setAmount(transferRequest.getAmount());
+            hold.setCreatedAt(LocalDateTime.now());
+            balanceHoldRepository.save(hold);
+            eventPublisher.publishEvent(new PendingQueueEvent(PendingQueueEvent.ADDED, transaction));
+
+            if ("OPTIMISTIC".equalsIgnoreCase(accountLocking)) {
+                // Without a row lock, bumping the version makes racing holds on the same account conflict
+                entityManager.lock(fromAccount, LockModeType.OPTIMISTIC_FORCE_INCREMENT);
+            }
+
+            if (claim != null) {
+                claim.complete("PENDING");
+            }
             return "PENDING";
         } else {
             // Automatic Approval
-            fromAccount.setBalance(fromAccount.getBalance().subtract(transferRequest.getAmount()));
+            ledgerService.post(fromAccount.getAccountNumber(), toAccount.getAccountNumber(), transferRequest.getAmount(),
+                    fromAccount, toAccount);
             accountRepository.save(fromAccount);
-
-            toAccount.setBalance(toAccount.getBalance().add(transferRequest.getAmount()));
             accountRepository.save(toAccount);
 
             // Debit Record
@@ -86,8 +186,9 @@ public class TransactionService {
             debitTransaction.setType("DEBIT");
             debitTransaction.setTimestamp(LocalDateTime.now());
             debitTransaction.setTargetAccountNumber(toAccount.getAccountNumber());
-            debitTransaction.setDescription("Transfer to " +  toAccount.getUser().getUsername());
+            debitTransaction.setDescription("Transfer to " +  to.getUsername());
             debitTransaction.setStatus("SUCCESS");
+            debitTransaction.setBalanceAfter(fromAccount.getBalance());
             transactionRepository.save(debitTransaction);
 
             // Credit Record
@@ -97,17 +198,132 @@ public class TransactionService {
             creditTransaction.setType("CREDIT");
             creditTransaction.setTimestamp(LocalDateTime.now());
             creditTransaction.setTargetAccountNumber(fromAccount.getAccountNumber());
-            creditTransaction.setDescription("Received from " + fromAccount.getUser().getUsername());
+            creditTransaction.setDescription("Received from " + from.getUsername());
             creditTransaction.setStatus("SUCCESS");
+            creditTransaction.setBalanceAfter(toAccount.getBalance());
             transactionRepository.save(creditTransaction);
 
+            if (claim != null) {
+                claim.complete("SUCCESS");
+            }
             return "SUCCESS";
         }
     }
     
+    @Transactional
+    public BulkTransferResponse bulkTransfer(BulkTransferRequest bulkRequest, String username) {
+        Set<String> accountNumbers = new LinkedHashSet<>();
+        accountNumbers.add(bulkRequest.getFromAccountNumber());
+        for (BulkTransferLine line : bulkRequest.getLines()) {
+            accountNumbers.add(line.getToAccountNumber());
+        }
+
+        // One set-based query finds and locks the source and every target, in id order
+        Map<String, Account> accounts = new HashMap<>();
+        for (Account account : accountRepository.findAllForUpdateByAccountNumberIn(accountNumbers)) {
+            accounts.put(account.getAccountNumber(), account);
+        }
+
+        Account fromAccount = accounts.get(bulkRequest.getFromAccountNumber());
+        if (fromAccount == null) {
+            throw new IllegalArgumentException("Source account not found");
+        }
+
+        if (!fromAccount.getUser().getUsername().equals(username)) {
+            throw new IllegalArgumentException("You do not own the source account");
+        }
+
+        if (fromAccount.getAccountType() != AccountType.CURRENT) {
+            throw new IllegalArgumentException("Bulk transfers are only available for CURRENT accounts");
+        }
+
+        if (!fromAccount.isActive()) {
+            throw new IllegalArgumentException("Source account is frozen/inactive");
+        }
+
+        List<BulkTransferLineResult> results = new ArrayList<>();
+        List<Integer> accepted = new ArrayList<>();
+        BigDecimal remaining = getAvailableBalance(fromAccount);
+        int failed = 0;
+
+        for (int i = 0; i < bulkRequest.getLines().size(); i++) {
+            BulkTransferLine line = bulkRequest.getLines().get(i);
+            Account toAccount = accounts.get(line.getToAccountNumber());
+
+            String error = null;
+            if (toAccount == null) {
+                error = "Target account not found";
+            } else if (toAccount == fromAccount) {
+                error = "Cannot transfer funds to the same account";
+            } else if (!toAccount.isActive()) {
+                error = "Target account is frozen/inactive";
+            } else if (remaining.compareTo(line.getAmount()) < 0) {
+                error = "Insufficient balance";
+            }
+
+            if (error != null) {
+                results.add(new BulkTransferLineResult(i + 1, line.getToAccountNumber(), line.getAmount(), "FAILED", error));
+                failed++;
+            } else {
+                remaining = remaining.subtract(line.getAmount());
+                results.add(new BulkTransferLineResult(i + 1, line.getToAccountNumber(), line.getAmount(), "SUCCESS", null));
+                accepted.add(i);
+            }
+        }
+
+        if (failed > 0 && bulkRequest.isAllOrNothing()) {
+            for (int i : accepted) {
+                BulkTransferLineResult result = results.get(i);
+                result.setStatus("SKIPPED");
+                result.setMessage("Batch rejected because other lines failed");
+            }
+            return new BulkTransferResponse(false, 0, failed, BigDecimal.ZERO, results);
+        }
+
+        LocalDateTime now = LocalDateTime.now();
+        BigDecimal totalDebited = BigDecimal.ZERO;
+        List<Transaction> legs = new ArrayList<>(accepted.size() * 2);
+        List<LedgerEntry> ledgerLegs = new ArrayList<>(accepted.size() * 2);
+        for (int i : accepted) {
+            BulkTransferLine line = bulkRequest.getLines().get(i);
+            Account toAccount = accounts.get(line.getToAccountNumber());
+            ledgerLegs.addAll(ledgerService.move(fromAccount.getAccountNumber(), toAccount.getAccountNumber(), line.getAmount(),
+                    fromAccount, toAccount));
+            totalDebited = totalDebited.add(line.getAmount());
+
+            Transaction debitTransaction = new Transaction();
+            debitTransaction.setAccount(fromAccount);
+            debitTransaction.setAmount(line.getAmount().negate());
+            debitTransaction.setType("DEBIT");
+            debitTransaction.setTimestamp(now);
+            debitTransaction.setTargetAccountNumber(toAccount.getAccountNumber());
+            debitTransaction.setDescription("Bulk Transfer to " + toAccount.getUser().getUsername());
+            debitTransaction.setStatus("SUCCESS");
+            debitTransaction.setBalanceAfter(fromAccount.getBalance());
+            legs.add(debitTransaction);
+
+            Transaction creditTransaction = new Transaction();
+            creditTransaction.setAccount(toAccount);
+            creditTransaction.setAmount(line.getAmount());
+            creditTransaction.setType("CREDIT");
+            creditTransaction.setTimestamp(now);
+            creditTransaction.setTargetAccountNumber(fromAccount.getAccountNumber());
+            creditTransaction.setDescription("Received from " + fromAccount.getUser().getUsername());
+            creditTransaction.setStatus("SUCCESS");
+            creditTransaction.setBalanceAfter(toAccount.getBalance());
+            legs.add(creditTransaction);
+        }
+
+        accountRepository.saveAll(accounts.values());
+        transactionRepository.saveAll(legs);
+        ledgerService.post(ledgerLegs);
+
+        return new BulkTransferResponse(true, accepted.size(), failed, totalDebited, results);
+    }
+
     @Transactional
     public void approveTransaction(Long transactionId) {
-        Transaction transaction = transactionRepository.findById(transactionId)
+        Transaction transaction = transactionRepository.findByIdForUpdate(transactionId)
                 .orElseThrow(() -> new IllegalArgumentException("Transaction not found"));
         
         if (!"PENDING".equals(transaction.getStatus())) {
@@ -117,34 +333,55 @@ public class TransactionService {
         Account fromAccount = transaction.getAccount();
         Account toAccount = accountRepository.findByAccountNumber(transaction.getTargetAccountNumber())
                  .orElseThrow(() -> new IllegalArgumentException("Target account not found"));
+
+        Optional<BalanceHold> hold = balanceHoldRepository.findByTransactionId(transactionId);
+        if (hold.isPresent()) {
+            lockInOrder(fromAccount, toAccount);
+        } else {
+            lockInOrder(toAccount);
+        }
         
         if (!toAccount.isActive()) {
              throw new IllegalArgumentException("Target account is frozen/inactive");
         }
-        
-        // Funds were already deducted from source. Now add to target.
-        toAccount.setBalance(toAccount.getBalance().add(transaction.getAmount().abs()));
+
+        BigDecimal amount = transaction.getAmount().abs();
+        // Transfers that went PENDING before holds existed were debited into the suspense account up front
+        String ledgerSource = hold.isPresent() ? fromAccount.getAccountNumber() : LedgerService.PENDING_TRANSFERS;
+        ledgerService.post(ledgerSource, toAccount.getAccountNumber(), amount, fromAccount, toAccount);
+        if (hold.isPresent()) {
+            // Capture the hold: the source is debited only now
+            accountRepository.save(fromAccount);
+            balanceHoldRepository.delete(hold.get());
+        }
         accountRepository.save(toAccount);
         
-        transaction.setStatus("SUCCESS");
-        transaction.setDescription(transaction.getDescription().replace(" (PENDING APPROVAL)", ""));
+        LocalDateTime now = LocalDateTime.now();
+        if (hold.isPresent()) {
+            transactionRepository.save(captureRow(transaction, fromAccount, now));
+        } else {
+            transaction.setStatus("SUCCESS");
+            transaction.setDescription(transaction.getDescription().replace(" (PENDING APPROVAL)", ""));
+        }
         transactionRepository.save(transaction);
         
         // Create Credit Record for Receiver
         Transaction creditTransaction = new Transaction();
         creditTransaction.setAccount(toAccount);
-        creditTransaction.setAmount(transaction.getAmount().abs());
+        creditTransaction.setAmount(amount);
         creditTransaction.setType("CREDIT");
-        creditTransaction.setTimestamp(LocalDateTime.now());
+        creditTransaction.setTimestamp(now);
         creditTransaction.setTargetAccountNumber(fromAccount.getAccountNumber());
         creditTransaction.setDescription("Received from " + fromAccount.getUser().getUsername());
         creditTransaction.setStatus("SUCCESS");
+        creditTransaction.setBalanceAfter(toAccount.getBalance());
         transactionRepository.save(creditTransaction);
+        eventPublisher.publishEvent(new PendingQueueEvent(PendingQueueEvent.REMOVED, transaction));
     }
 
     @Transactional
     public void rejectTransaction(Long transactionId) {
-        Transaction transaction = transactionRepository.findById(transactionId)
+        Transaction transaction = transactionRepository.findByIdForUpdate(transactionId)
                 .orElseThrow(() -> new IllegalArgumentException("Transaction not found"));
         
         if (!"PENDING".equals(transaction.getStatus())) {
@@ -152,39 +389,262 @@ public class TransactionService {
         }
         
         Account fromAccount = transaction.getAccount();
-        
-        // Refund source account
-        fromAccount.setBalance(fromAccount.getBalance().add(transaction.getAmount().abs()));
-        accountRepository.save(fromAccount);
-        
-        transaction.setStatus("REJECTED");
-        transaction.setDescription(transaction.getDescription().replace(" (PENDING APPROVAL)", " (REJECTED)"));
+
+        Optional<BalanceHold> hold = balanceHoldRepository.findByTransactionId(transactionId);
+        if (hold.isPresent()) {
+            // Releasing the hold restores the available balance without touching the account row
+            balanceHoldRepository.delete(hold.get());
+            transaction.setStatus("REJECTED");
+            transaction.setDescription(transaction.getDescription().replace(" (PENDING APPROVAL)", " (REJECTED)"));
+        } else {
+            lockInOrder(fromAccount);
+
+            // Refund source account
+            ledgerService.post(LedgerService.PENDING_TRANSFERS, fromAccount.getAccountNumber(), transaction.getAmount().abs(), fromAccount);
+            accountRepository.save(fromAccount);
+            transactionRepository.save(refundRow(transaction, fromAccount, LocalDateTime.now()));
+        }
         transactionRepository.save(transaction);
+        eventPublisher.publishEvent(new PendingQueueEvent(PendingQueueEvent.REMOVED, transaction));
+    }
+
+    /**
+     * Marks a held transfer APPROVED and returns the DEBIT row that captures it. The pending row
+     * keeps its creation time and the balance it showed then; the capture is posted at {@code now}
+     * with the balance after the debit, so running balances follow posting order.
+     */
+    private Transaction captureRow(Transaction transaction, Account fromAccount, LocalDateTime now) {
+        transaction.setStatus("APPROVED");
+        transaction.setDescription(transaction.getDescription().replace(" (PENDING APPROVAL)", " (APPROVED)"));
+
+        Transaction capture = new Transaction();
+        capture.setAccount(fromAccount);
+        capture.setAmount(transaction.getAmount());
+        capture.setType("DEBIT");
+        capture.setTimestamp(now);
+        capture.setTargetAccountNumber(transaction.getTargetAccountNumber());
+        capture.setDescription(transaction.getDescription().replace(" (APPROVED)", ""));
+        capture.setStatus("SUCCESS");
+        capture.setBalanceAfter(fromAccount.getBalance());
+        return capture;
     }
 
-    public List<Transaction> getPendingTransactions() {
-        // This is a simplified way. Ideally we should have a custom query.
-        // Since we don't have a status based query in repo, let's filter all or add method to repo.
-        // Let's add method to repo first (implicit step in next tool call? or just filter here if list is small, better to add to repo)
-        // I'll add to Repo in next step, for now I will assume it exists or use findAll and filter
-        return transactionRepository.findAll().stream()
-                .filter(t -> "PENDING".equals(t.getStatus()))
-                .toList();
+    /**
+     * Marks a legacy pending transfer, debited when it was created, REVERSED and returns the CREDIT
+     * row that refunds it at {@code now}.
+     */
+    private Transaction refundRow(Transaction transaction, Account fromAccount, LocalDateTime now) {
+        transaction.setStatus("REVERSED");
+        transaction.setDescription(transaction.getDescription().replace(" (PENDING APPROVAL)", " (REJECTED)"));
+
+        Transaction refund = new Transaction();
+        refund.setAccount(fromAccount);
+        refund.setAmount(transaction.getAmount().abs());
+        refund.setType("CREDIT");
+        refund.setTimestamp(now);
+        refund.setTargetAccountNumber(transaction.getTargetAccountNumber());
+        refund.setDescription("Refund: " + transaction.getDescription().replace(" (REJECTED)", ""));
+        refund.setStatus("SUCCESS");
+        refund.setBalanceAfter(fromAccount.getBalance());
+        return refund;
+    }
+
+    /**
+     * Approves or rejects many PENDING transfers in one transaction. Transactions are locked in id
+     * order and then every affected account in one id-ordered query, the same order as single
+     * approvals, so the two cannot deadlock. Ids that cannot be decided are reported and skipped.
+     */
+    @Transactional
+    public BulkDecisionResponse bulkDecide(List<Long> transactionIds, boolean approve) {
+        List<Long> ids = new ArrayList<>(new LinkedHashSet<>(transactionIds));
+        Map<Long, Transaction> transactions = new HashMap<>();
+        for (Transaction transaction : transactionRepository.findAllForUpdateByIdIn(ids)) {
+            transactions.put(transaction.getId(), transaction);
+        }
+        Map<Long, BalanceHold> holds = new HashMap<>();
+        for (BalanceHold hold : balanceHoldRepository.findByTransactionIdIn(ids)) {
+            holds.put(hold.getTransactionId(), hold);
+        }
+
+        // Sources are known by id (reading it does not load the lazy account), targets by number
+        Set<Long> sourceIds = new LinkedHashSet<>();
+        Set<String> targetNumbers = new LinkedHashSet<>();
+        for (Transaction transaction : transactions.values()) {
+            if ("PENDING".equals(transaction.getStatus())) {
+                sourceIds.add(transaction.getAccount().getId());
+                targetNumbers.add(transaction.getTargetAccountNumber());
+            }
+        }
+        Map<Long, Account> accountsById = new HashMap<>();
+        Map<String, Account> accounts = new HashMap<>();
+        if (!sourceIds.isEmpty()) {
+            List<Account> affected = "OPTIMISTIC".equalsIgnoreCase(accountLocking)
+                    ? accountRepository.findAllByIdInOrAccountNumberIn(sourceIds, targetNumbers)
+                    : accountRepository.findAllForUpdateByIdInOrAccountNumberIn(sourceIds, targetNumbers);
+            for (Account account : affected) {
+                accountsById.put(account.getId(), account);
+                accounts.put(account.getAccountNumber(), account);
+            }
+        }
+
+        List<BulkDecisionResult> results = new ArrayList<>(ids.size());
+        List<Transaction> credits = new ArrayList<>();
+        List<BalanceHold> releasedHolds = new ArrayList<>();
+        List<LedgerEntry> ledgerLegs = new ArrayList<>();
+        List<Transaction> decided = new ArrayList<>();
+        LocalDateTime now = LocalDateTime.now();
+        int failed = 0;
+
+        for (Long id : ids) {
+            Transaction transaction = transactions.get(id);
+            String error = null;
+            Account toAccount = null;
+            if (transaction == null) {
+                error = "Transaction not found";
+            } else if (!"PENDING".equals(transaction.getStatus())) {
+                error = "Transaction is not pending";
+            } else if (approve) {
+                toAccount = accounts.get(transaction.getTargetAccountNumber());
+                if (toAccount == null) {
+                    error = "Target account not found";
+                } else if (!toAccount.isActive()) {
+                    error = "Target account is frozen/inactive";
+                }
+            }
+            if (error != null) {
+                results.add(new BulkDecisionResult(id, "FAILED", error));
+                failed++;
+                continue;
+            }
+
+            Account fromAccount = accountsById.get(transaction.getAccount().getId());
+            BigDecimal amount = transaction.getAmount().abs();
+            BalanceHold hold = holds.get(id);
+            if (hold != null) {
+                releasedHolds.add(hold);
+            }
+
+            if (approve) {
+                String ledgerSource = hold != null ? fromAccount.getAccountNumber() : LedgerService.PENDING_TRANSFERS;
+                ledgerLegs.addAll(ledgerService.move(ledgerSource, toAccount.getAccountNumber(), amount, fromAccount, toAccount));
+                if (hold != null) {
+                    credits.add(captureRow(transaction, fromAccount, now));
+                } else {
+                    transaction.setStatus("SUCCESS");
+                    transaction.setDescription(transaction.getDescription().replace(" (PENDING APPROVAL)", ""));
+                }
+
+                Transaction creditTransaction = new Transaction();
+                creditTransaction.setAccount(toAccount);
+                creditTransaction.setAmount(amount);
+                creditTransaction.setType("CREDIT");
+                creditTransaction.setTimestamp(now);
+                creditTransaction.setTargetAccountNumber(fromAccount.getAccountNumber());
+                creditTransaction.setDescription("Received from " + fromAccount.getUser().getUsername());
+                creditTransaction.setStatus("SUCCESS");
+                creditTransaction.setBalanceAfter(toAccount.getBalance());
+                credits.add(creditTransaction);
+                results.add(new BulkDecisionResult(id, "APPROVED", null));
+            } else {
+                if (hold == null) {
+                    // Legacy pending transfer, debited up front: refund it
+                    ledgerLegs.addAll(ledgerService.move(LedgerService.PENDING_TRANSFERS, fromAccount.getAccountNumber(), amount, fromAccount));
+                    credits.add(refundRow(transaction, fromAccount, now));
+                } else {
+                    transaction.setStatus("REJECTED");
+                    transaction.setDescription(transaction.getDescription().replace(" (PENDING APPROVAL)", " (REJECTED)"));
+                }
+                results.add(new BulkDecisionResult(id, "REJECTED", null));
+            }
+            decided.add(transaction);
+        }
+
+        if (!decided.isEmpty()) {
+            accountRepository.saveAll(accountsById.values());
+            transactionRepository.saveAll(decided);
+            transactionRepository.saveAll(credits);
+            balanceHoldRepository.deleteAllInBatch(releasedHolds);
+            if (!ledgerLegs.isEmpty()) {
+                ledgerService.post(ledgerLegs);
+            }
+            for (Transaction transaction : decided) {
+                eventPublisher.publishEvent(new PendingQueueEvent(PendingQueueEvent.REMOVED, transaction));
+            }
+        }
+        return new BulkDecisionResponse(decided.size(), failed, results);
+    }
+
+    /**
+     * One page of the PENDING queue, oldest first ({@code age}) or largest first ({@code amount}).
+     */
+    public List<Transaction> getPendingTransactions(String sort, int page, int size) {
+        if (size < 1 || size > MAX_PAGE_SIZE) {
+            throw new IllegalArgumentException("Page size must be between 1 and " + MAX_PAGE_SIZE);
+        }
+        if (page < 0) {
+            throw new IllegalArgumentException("Page must not be negative");
+        }
+        Sort order = switch (sort) {
+            case "age" -> Sort.by(Sort.Order.asc("timestamp"), Sort.Order.asc("id"));
+            // Amounts are negative debits: ascending is largest first (see PendingQueueIndexInitializer)
+            case "amount" -> Sort.by(Sort.Order.asc("amount"), Sort.Order.asc("timestamp"));
+            default -> throw new IllegalArgumentException("Sort must be 'age' or 'amount'");
+        };
+        return transactionRepository.findPending(PageRequest.of(page, size, order));
+    }
+
+    public PendingCountResponse countPendingTransactions() {
+        return transactionRepository.countPending();
     }
     
-    public List<Transaction> getTransactionHistory(String accountNumber, String username) {
-         Account account = accountRepository.findByAccountNumber(accountNumber)
+    /**
+     * The latest {@code obs.app.legacyHistoryLimit} transactions, oldest first, for the deprecated
+     * full-history endpoint; {@link #getTransactionPage} pages through all of them.
+     */
+    public List<Transaction> getTransactionHistory(String accountNumber, String username, TransactionFilter filter) {
+         AccountDirectoryEntry account = accountDirectory.find(accountNumber)
                 .orElseThrow(() -> new IllegalArgumentException("Account not found"));
          
-         if (!account.getUser().getUsername().equals(username)) {
+         if (!account.getUsername().equals(username)) {
             throw new IllegalArgumentException("Unauthorized access to account history");
         }
          
-         return transactionRepository.findByAccount(account);
+         return transactionRepository.findFiltered(account.getId(), checkFilter(filter), legacyHistoryLimit);
     }
     
+    public TransactionPageResponse getTransactionPage(String accountNumber, String username, TransactionFilter filter,
+                                                      String cursor, int size) {
+        AccountDirectoryEntry account = accountDirectory.find(accountNumber)
+                .orElseThrow(() -> new IllegalArgumentException("Account not found"));
+        if (!account.getUsername().equals(username)) {
+            throw new IllegalArgumentException("Unauthorized access to account history");
+        }
+        return loadPage(account.getId(), filter, cursor, size);
+    }
+
+    public TransactionPageResponse getTransactionPageForAccount(String accountNumber, TransactionFilter filter,
+                                                                String cursor, int size) {
+        AccountDirectoryEntry account = accountDirectory.find(accountNumber)
+                .orElseThrow(() -> new IllegalArgumentException("Account not found"));
+        return loadPage(account.getId(), filter, cursor, size);
+    }
+
+    /**
+     * Account for a statement download, after the ownership check ({@code username} is null for bankers)
+     * and filter validation. The owner is loaded for the statement header.
+     */
+    public Account getStatementAccount(String accountNumber, String username, TransactionFilter filter) {
+        Account account = accountRepository.findWithUserByAccountNumber(accountNumber)
+                .orElseThrow(() -> new ResourceNotFoundException("Account not found"));
+        if (username != null && !account.getUser().getUsername().equals(username)) {
+            throw new IllegalArgumentException("Unauthorized access to account statement");
+        }
+        checkFilter(filter);
+        return account;
+    }
+
     public Transaction getTransactionById(Long id) {
-        return transactionRepository.findById(id)
+        return transactionRepository.findWithAccountById(id)
                 .orElseThrow(() -> new RuntimeException("Transaction not found"));
     }
 
@@ -197,6 +657,8 @@ public class TransactionService {
             throw new IllegalArgumentException("Cannot transfer funds to the same account");
         }
 
+        lockInOrder(fromAccount, toAccount);
+
         if (!fromAccount.isActive()) {
             throw new IllegalArgumentException("Source account is frozen/inactive");
         }
@@ -205,14 +667,12 @@ public class TransactionService {
             throw new IllegalArgumentException("Target account is frozen/inactive");
         }
 
-        if (fromAccount.getBalance().compareTo(amount) < 0) {
+        if (getAvailableBalance(fromAccount).compareTo(amount) < 0) {
             throw new IllegalArgumentException("Insufficient balance");
         }
         
-        fromAccount.setBalance(fromAccount.getBalance().subtract(amount));
+        ledgerService.post(fromAccount.getAccountNumber(), toAccount.getAccountNumber(), amount, fromAccount, toAccount);
         accountRepository.save(fromAccount);
-
-        toAccount.setBalance(toAccount.getBalance().add(amount));
         accountRepository.save(toAccount);
 
         Transaction debitTransaction = new Transaction();
@@ -223,6 +683,7 @@ public class TransactionService {
         debitTransaction.setTargetAccountNumber(toAccount.getAccountNumber());
         debitTransaction.setDescription("Recurring Transfer to " + toAccount.getAccountNumber());
         debitTransaction.setStatus("SUCCESS");
+        debitTransaction.setBalanceAfter(fromAccount.getBalance());
         transactionRepository.save(debitTransaction);
 
         Transaction creditTransaction = new Transaction();
@@ -233,11 +694,186 @@ public class TransactionService {
         creditTransaction.setTargetAccountNumber(fromAccount.getAccountNumber());
         creditTransaction.setDescription("Recurring Received from " + fromAccount.getUser().getUsername());
         creditTransaction.setStatus("SUCCESS");
+        creditTransaction.setBalanceAfter(toAccount.getBalance());
         transactionRepository.save(creditTransaction);
     }
-    public List<Transaction> getTransactionsForAccount(String accountNumber) {
+
+    @Transactional
+    public Account deposit(String accountNumber, BigDecimal amount, IdempotencyClaim claim) {
         Account account = accountRepository.findByAccountNumber(accountNumber)
+                .orElseThrow(() -> new ResourceNotFoundException("Account not found"));
+
+        lockInOrder(account);
+
+        if (!account.isActive()) {
+            throw new IllegalArgumentException("Cannot deposit to frozen/inactive account");
+        }
+
+        if (claim != null) {
+            claim.begin();
+        }
+
+        ledgerService.post(LedgerService.CASH, account.getAccountNumber(), amount, account);
+        accountRepository.save(account);
+
+        // Record Transaction
+        Transaction transaction = new Transaction();
+        transaction.setAccount(account);
+        transaction.setAmount(amount); // Positive for Credit
+        transaction.setType("CREDIT");
+        transaction.setTimestamp(LocalDateTime.now());
+        transaction.setDescription("Cash Deposit by Banker");
+        transaction.setStatus("SUCCESS");
+        transaction.setBalanceAfter(account.getBalance());
+        // targetAccountNumber is null for cash deposit
+        transactionRepository.save(transaction);
+
+        if (claim != null) {
+            claim.complete(account);
+        }
+        return account;
+    }
+    /**
+     * Banker counterpart of {@link #getTransactionHistory}, limited the same way.
+     */
+    public List<Transaction> getTransactionsForAccount(String accountNumber, TransactionFilter filter) {
+        AccountDirectoryEntry account = accountDirectory.find(accountNumber)
                 .orElseThrow(() -> new IllegalArgumentException("Account not found"));
-        return transactionRepository.findByAccount(account);
+        return transactionRepository.findFiltered(account.getId(), checkFilter(filter), legacyHistoryLimit);
+    }
+
+    /**
+     * Newest-first page of the account's history. The cursor is the (timestamp, id) of the last row
+     * of the previous page, so each page is a single index range scan whatever its depth.
+     */
+    private TransactionPageResponse loadPage(Long accountId, TransactionFilter filter, String cursor, int size) {
+        if (size < 1 || size > MAX_PAGE_SIZE) {
+            throw new IllegalArgumentException("Page size must be between 1 and " + MAX_PAGE_SIZE);
+        }
+        checkFilter(filter);
+        LocalDateTime beforeTimestamp = null;
+        Long beforeId = null;
+        if (cursor != null && !cursor.isBlank()) {
+            String[] position = decodeCursor(cursor);
+            beforeTimestamp = LocalDateTime.parse(position[0]);
+            beforeId = Long.parseLong(position[1]);
+        }
+        // One extra row tells us whether there is a next page without a count query
+        List<TransactionSummary> rows = transactionRepository.findSummaries(accountId, filter, beforeTimestamp, beforeId, size + 1);
+
+        String nextCursor = null;
+        if (rows.size() > size) {
+            rows = rows.subList(0, size);
+            TransactionSummary last = rows.get(size - 1);
+            nextCursor = encodeCursor(last.getTimestamp(), last.getId());
+        }
+        return new TransactionPageResponse(rows, nextCursor);
+    }
+
+    private static TransactionFilter checkFilter(TransactionFilter filter) {
+        if (filter == null) {
+            return null;
+        }
+        if (filter.getType() != null && filter.getType().isBlank()) {
+            filter.setType(null);
+        }
+        if (filter.getStatus() != null && filter.getStatus().isBlank()) {
+            filter.setStatus(null);
+        }
+        if (filter.getType() != null) {
+            filter.setType(filter.getType().toUpperCase());
+            if (!filter.getType().equals("DEBIT") && !filter.getType().equals("CREDIT")) {
+                throw new IllegalArgumentException("Type must be DEBIT or CREDIT");
+            }
+        }
+        if (filter.getStatus() != null) {
+            filter.setStatus(filter.getStatus().toUpperCase());
+        }
+        if (filter.getFrom() != null && filter.getTo() != null && filter.getFrom().isAfter(filter.getTo())) {
+            throw new IllegalArgumentException("'from' must not be after 'to'");
+        }
+        if (filter.getMinAmount() != null && filter.getMaxAmount() != null
+                && filter.getMinAmount().compareTo(filter.getMaxAmount()) > 0) {
+            throw new IllegalArgumentException("minAmount must not be greater than maxAmount");
+        }
+        return filter;
+    }
+
+    private static String encodeCursor(LocalDateTime timestamp, Long id) {
+        String position = timestamp + "|" + id;
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(position.getBytes(StandardCharsets.UTF_8));
+    }
+
+    private static String[] decodeCursor(String cursor) {
+        try {
+            String[] position = new String(Base64.getUrlDecoder().decode(cursor), StandardCharsets.UTF_8).split("\\|");
+            if (position.length != 2) {
+                throw new IllegalArgumentException("Invalid cursor");
+            }
+            LocalDateTime.parse(position[0]);
+            Long.parseLong(position[1]);
+            return position;
+        } catch (IllegalArgumentException | DateTimeParseException e) {
+            throw new IllegalArgumentException("Invalid cursor");
+        }
+    }
+
+    /**
+     * Balance minus the funds held for PENDING high-value transfers.
+     */
+    public BigDecimal getAvailableBalance(Account account) {
+        return account.getBalance().subtract(balanceHoldRepository.sumByAccountId(account.getId()));
+    }
+
+    /**
+     * Loads accounts by id for an update, locking all rows with one ordered SELECT ... FOR UPDATE
+     * in PESSIMISTIC mode. Must be the first load of these rows in the transaction (or they must
+     * already be locked by it), since rows already in the persistence context are not re-read.
+     */
+    private Map<Long, Account> loadForUpdate(Long... ids) {
+        List<Long> idList = Arrays.asList(ids);
+        List<Account> accounts = "OPTIMISTIC".equalsIgnoreCase(accountLocking)
+                ? accountRepository.findAllById(idList)
+                : accountRepository.findAllForUpdateByIdIn(idList);
+        Map<Long, Account> byId = new HashMap<>();
+        for (Account account : accounts) {
+            byId.put(account.getId(), account);
+        }
+        for (Long id : ids) {
+            if (!byId.containsKey(id)) {
+                throw new IllegalArgumentException("Account not found");
+            }
+        }
+        return byId;
+    }
+
+    /**
+     * Locks the accounts with the given numbers in one id-ordered query. Used by group commit to
+     * take every lock its transfers need up front, in the same order as every other writer; the
+     * transfers' own locking then finds the rows already held. Unknown numbers are skipped (the
+     * transfer reports them), and OPTIMISTIC mode takes no lock.
+     */
+    void lockAccountNumbersInOrder(Collection<String> accountNumbers) {
+        if ("OPTIMISTIC".equalsIgnoreCase(accountLocking) || accountNumbers.isEmpty()) {
+            return;
+        }
+        accountRepository.findAllForUpdateByAccountNumberIn(accountNumbers);
+    }
+
+    /**
+     * Takes a row lock (SELECT ... FOR UPDATE) on each account and reloads its state.
+     * Locks are always acquired in ascending id order, so two transfers touching the
+     * same pair of accounts in opposite directions can never deadlock, and balances are
+     * re-read under the lock so concurrent updates are not lost.
+     * In OPTIMISTIC mode no lock is taken and a concurrent update surfaces as a version conflict.
+     */
+    void lockInOrder(Account... accounts) {
+        if ("OPTIMISTIC".equalsIgnoreCase(accountLocking)) {
+            return;
+        }
+        Arrays.stream(accounts)
+                .distinct()
+                .sorted(Comparator.comparing(Account::getId))
+                .forEach(account -> entityManager.refresh(account, LockModeType.PESSIMISTIC_WRITE));
     }
 }
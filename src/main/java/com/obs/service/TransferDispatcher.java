@@ -0,0 +1,128 @@
+package com.obs.service;
+
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Future;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Supplier;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import com.obs.exception.ServiceBusyException;
+import com.obs.payload.request.TransferRequest;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+
+/**
+ * Entry point for customer and recurring transfers. When {@code obs.app.transferShards} is greater
+ * than zero, work is hash-partitioned by source account number onto a fixed set of shard threads,
+ * so debits of one account queue in memory instead of on its row lock while each holds a pooled
+ * connection. This only orders debits of the same source within this instance: the credited
+ * account can still be written from another shard or instance, so the database row locks remain
+ * the correctness guarantee. Shard queues are bounded; a full queue fails fast with
+ * {@link ServiceBusyException}. When group commit is enabled, customer transfers are handed to
+ * {@link TransferGroupCommitter} instead.
+ */
+@Service
+public class TransferDispatcher {
+
+    @Autowired
+    private TransactionService transactionService;
+
+    @Autowired
+    private TransferGroupCommitter transferGroupCommitter;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @Autowired
+    private OptimisticRetryTemplate optimisticRetry;
+
+    @Value("${obs.app.transferShards:0}")
+    private int shardCount;
+
+    @Value("${obs.app.transferShardQueueCapacity:1000}")
+    private int shardQueueCapacity;
+
+    private ThreadPoolExecutor[] shards;
+
+    private Timer transferTimer;
+
+    @PostConstruct
+    public void init() {
+        transferTimer = Timer.builder("obs.transfers")
+                .description("End-to-end latency of customer transfers")
+                .register(meterRegistry);
+
+        if (shardCount <= 0) {
+            return;
+        }
+        shards = new ThreadPoolExecutor[shardCount];
+        for (int i = 0; i < shardCount; i++) {
+            String threadName = "transfer-shard-" + i;
+            shards[i] = new ThreadPoolExecutor(1, 1, 0L, TimeUnit.MILLISECONDS,
+                    new ArrayBlockingQueue<>(shardQueueCapacity), runnable -> {
+                        Thread thread = new Thread(runnable, threadName);
+                        thread.setDaemon(true);
+                        return thread;
+                    });
+        }
+    }
+
+    public String dispatch(TransferRequest transferRequest, String username, IdempotencyClaim claim) {
+        return transferTimer.record(() -> optimisticRetry.execute(() -> route(transferRequest, username, claim)));
+    }
+
+    /**
+     * Runs {@code work}, which debits {@code sourceAccountNumber} and manages its own transaction,
+     * on that account's shard, or on the calling thread when sharding is off.
+     */
+    public <T> T onShard(String sourceAccountNumber, Supplier<T> work) {
+        if (shards == null) {
+            return work.get();
+        }
+
+        int shard = Math.floorMod(sourceAccountNumber.hashCode(), shards.length);
+        Future<T> result;
+        try {
+            result = shards[shard].submit(work::get);
+        } catch (RejectedExecutionException e) {
+            throw new ServiceBusyException("Too many transfers queued for this account, please retry later");
+        }
+        try {
+            return result.get();
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof RuntimeException runtimeException) {
+                throw runtimeException;
+            }
+            throw new RuntimeException("Transfer failed", e.getCause());
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new RuntimeException("Interrupted while waiting for transfer", e);
+        }
+    }
+
+    private String route(TransferRequest transferRequest, String username, IdempotencyClaim claim) {
+        if (transferGroupCommitter.isEnabled()) {
+            return transferGroupCommitter.submit(transferRequest, username, claim);
+        }
+        return onShard(transferRequest.getFromAccountNumber(),
+                () -> transactionService.transferFunds(transferRequest, username, claim));
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        if (shards != null) {
+            for (ThreadPoolExecutor shard : shards) {
+                shard.shutdown();
+            }
+        }
+    }
+}
@@ -0,0 +1,286 @@
+package com.obs.service;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import org.hibernate.Session;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataAccessException;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import com.obs.exception.ServiceBusyException;
+import com.obs.payload.request.TransferRequest;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import jakarta.persistence.PersistenceException;
+
+/**
+ * Collects concurrent transfers for up to {@code obs.app.transferGroupCommitWindowMs} (or
+ * {@code obs.app.transferGroupCommitMaxBatch} requests) and applies them in one database
+ * transaction, so a burst of transfers pays for a single commit. Each caller still gets its own
+ * result: a transfer that fails without writing anything (validation, unknown account, ...) is
+ * reported on its own, and if the group transaction itself fails every transfer is retried on its
+ * own. A group locks all the accounts it touches up front, in id order like every other writer,
+ * so it cannot deadlock with non-grouped transfers.
+ * <p>
+ * The queue holds at most {@code obs.app.transferGroupCommitQueueCapacity} transfers and callers
+ * wait at most {@code obs.app.transferGroupCommitTimeoutMs}; both answer 503. A caller whose
+ * transfer was already being committed when the wait ran out cannot be told the outcome: with an
+ * Idempotency-Key it can retry with the same key, without one it must check its transaction
+ * history first, as a blind retry could debit twice. The committer thread is restarted if it ever dies.
+ */
+@Service
+public class TransferGroupCommitter {
+
+    private static final Logger logger = LoggerFactory.getLogger(TransferGroupCommitter.class);
+
+    @Autowired
+    private TransactionService transactionService;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    @Value("${obs.app.transferGroupCommitWindowMs:0}")
+    private long windowMs;
+
+    @Value("${obs.app.transferGroupCommitMaxBatch:64}")
+    private int maxBatch;
+
+    @Value("${obs.app.transferGroupCommitQueueCapacity:1000}")
+    private int queueCapacity;
+
+    @Value("${obs.app.transferGroupCommitTimeoutMs:30000}")
+    private long timeoutMs;
+
+    private BlockingQueue<PendingTransfer> queue;
+
+    private TransactionTemplate transactionTemplate;
+
+    private Thread committer;
+
+    private volatile boolean running;
+
+    private DistributionSummary groupSize;
+
+    private Counter groupFallbacks;
+
+    @PostConstruct
+    public void init() {
+        if (!isEnabled()) {
+            return;
+        }
+        queue = new ArrayBlockingQueue<>(queueCapacity);
+        transactionTemplate = new TransactionTemplate(transactionManager);
+        groupSize = DistributionSummary.builder("obs.transfers.group.size")
+                .description("Transfers committed per group commit")
+                .register(meterRegistry);
+        groupFallbacks = Counter.builder("obs.transfers.group.fallbacks")
+                .description("Group commits that failed and were retried one transfer at a time")
+                .register(meterRegistry);
+
+        running = true;
+        ensureRunning();
+    }
+
+    public boolean isEnabled() {
+        return windowMs > 0;
+    }
+
+    public String submit(TransferRequest transferRequest, String username, IdempotencyClaim claim) {
+        ensureRunning();
+        PendingTransfer pending = new PendingTransfer(transferRequest, username, claim);
+        if (!queue.offer(pending)) {
+            throw new ServiceBusyException("Too many transfers waiting to commit, please retry later");
+        }
+        try {
+            try {
+                return pending.result.get(timeoutMs, TimeUnit.MILLISECONDS);
+            } catch (TimeoutException e) {
+                if (pending.started.compareAndSet(false, true)) {
+                    // Never picked up, so it can be withdrawn and safely retried
+                    queue.remove(pending);
+                    throw new ServiceBusyException("Transfer was not started in time, please retry later");
+                }
+            }
+            // Already being committed: its group finishes (or fails) soon
+            return pending.result.get(timeoutMs, TimeUnit.MILLISECONDS);
+        } catch (TimeoutException e) {
+            if (claim != null) {
+                throw new ServiceBusyException("Transfer outcome is not known yet, retry with the same " + IdempotencyService.HEADER);
+            }
+            // Without a key a retry is a new transfer, while this one may still commit
+            throw new ServiceBusyException("Transfer outcome is not known yet, check your transaction history before retrying");
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof RuntimeException runtimeException) {
+                throw runtimeException;
+            }
+            throw new RuntimeException("Transfer failed", e.getCause());
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new RuntimeException("Interrupted while waiting for transfer", e);
+        }
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        running = false;
+        if (committer != null) {
+            committer.interrupt();
+        }
+    }
+
+    private synchronized void ensureRunning() {
+        if (!running || (committer != null && committer.isAlive())) {
+            return;
+        }
+        if (committer != null) {
+            logger.error("Transfer group committer thread died, restarting it");
+        }
+        committer = new Thread(this::run, "transfer-group-commit");
+        committer.setDaemon(true);
+        committer.start();
+    }
+
+    private void run() {
+        while (running) {
+            List<PendingTransfer> group = new ArrayList<>(maxBatch);
+            try {
+                collect(group, queue.take());
+
+                long deadline = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(windowMs);
+                while (group.size() < maxBatch) {
+                    long remaining = deadline - System.nanoTime();
+                    if (remaining <= 0) {
+                        break;
+                    }
+                    PendingTransfer next = queue.poll(remaining, TimeUnit.NANOSECONDS);
+                    if (next == null) {
+                        break;
+                    }
+                    collect(group, next);
+                }
+
+                if (!group.isEmpty()) {
+                    commit(group);
+                }
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return;
+            } catch (RuntimeException | Error e) {
+                // Keep serving: whoever is still waiting on this group gets the failure
+                logger.error("Transfer group commit failed unexpectedly", e);
+                for (PendingTransfer pending : group) {
+                    pending.result.completeExceptionally(e);
+                }
+            }
+        }
+    }
+
+    private static void collect(List<PendingTransfer> group, PendingTransfer pending) {
+        // Skips transfers whose caller already gave up waiting
+        if (pending.started.compareAndSet(false, true)) {
+            group.add(pending);
+        }
+    }
+
+    private void commit(List<PendingTransfer> group) {
+        Map<PendingTransfer, Object> outcomes = new HashMap<>();
+        try {
+            transactionTemplate.executeWithoutResult(status -> {
+                Set<String> accountNumbers = new HashSet<>();
+                for (PendingTransfer pending : group) {
+                    accountNumbers.add(pending.transferRequest.getFromAccountNumber());
+                    accountNumbers.add(pending.transferRequest.getToAccountNumber());
+                }
+                transactionService.lockAccountNumbersInOrder(accountNumbers);
+                for (PendingTransfer pending : group) {
+                    try {
+                        String result = transactionService.applyTransfer(pending.transferRequest, pending.username, pending.claim);
+                        // Flushed per transfer so that a later failure can tell whether it wrote anything
+                        entityManager.flush();
+                        outcomes.put(pending, result);
+                    } catch (RuntimeException e) {
+                        if (!failedWithoutWriting(e)) {
+                            throw e;
+                        }
+                        outcomes.put(pending, e);
+                    }
+                }
+            });
+        } catch (RuntimeException e) {
+            groupFallbacks.increment();
+            for (PendingTransfer pending : group) {
+                try {
+                    pending.result.complete(transactionService.transferFunds(pending.transferRequest, pending.username, pending.claim));
+                } catch (RuntimeException transferFailure) {
+                    pending.result.completeExceptionally(transferFailure);
+                }
+            }
+            return;
+        }
+
+        groupSize.record(group.size());
+        for (PendingTransfer pending : group) {
+            Object outcome = outcomes.get(pending);
+            if (outcome instanceof RuntimeException failure) {
+                pending.result.completeExceptionally(failure);
+            } else {
+                pending.result.complete((String) outcome);
+            }
+        }
+    }
+
+    /**
+     * A failure can be reported for one transfer and the group carried on only if the database did
+     * not raise it (which would abort the transaction) and the transfer left no unflushed change.
+     */
+    private boolean failedWithoutWriting(RuntimeException e) {
+        if (e instanceof DataAccessException || e instanceof PersistenceException) {
+            return false;
+        }
+        return !entityManager.unwrap(Session.class).isDirty();
+    }
+
+    private static class PendingTransfer {
+        private final TransferRequest transferRequest;
+        private final String username;
+        private final IdempotencyClaim claim;
+        // Set by whoever gets there first: the committer taking it, or the caller giving up
+        private final AtomicBoolean started = new AtomicBoolean();
+        private final CompletableFuture<String> result = new CompletableFuture<>();
+
+        private PendingTransfer(TransferRequest transferRequest, String username, IdempotencyClaim claim) {
+            this.transferRequest = transferRequest;
+            this.username = username;
+            this.claim = claim;
+        }
+    }
+}
@@ -0,0 +1,10 @@
+-- Ledger snapshots are now cut at a commit-ordered watermark (the writing transaction's id)
+-- instead of an entry id, which is allocated before commit and out of order.
+
+-- Entries record their writing transaction; existing rows all get the id of this migration.
+ALTER TABLE IF EXISTS ledger_entries ADD COLUMN IF NOT EXISTS txid bigint DEFAULT txid_current();
+DROP INDEX IF EXISTS idx_ledger_account_id;
+
+-- Snapshots cut by entry id may have missed late-committing entries; they are rebuilt from the
+-- entries by the next snapshot run (Hibernate recreates the table with the watermark column).
+DROP TABLE IF EXISTS balance_snapshots;
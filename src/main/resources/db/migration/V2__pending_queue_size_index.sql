@@ -0,0 +1,3 @@
+-- The pending queue's amount order was descending on signed amounts, which put the smallest
+-- debit first. PendingQueueIndexInitializer now creates idx_txn_pending_size for the ascending order.
+DROP INDEX IF EXISTS idx_txn_pending_amount;
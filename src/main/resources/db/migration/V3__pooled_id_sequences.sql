@@ -0,0 +1,31 @@
+-- Pooled id generators (allocationSize = 50) need every sequence to step by 50 and to start past
+-- the highest id already in its table, including tables that used to be IDENTITY. A sequence that
+-- is already ahead is left where it is. Tables that do not exist yet are created by Hibernate later.
+DO $$
+DECLARE
+    seqs text[][] := ARRAY[
+        ['obs_user_seq', 'users', '100000001'],
+        ['obs_account_seq', 'account', '1'],
+        ['obs_transaction_seq', 'transaction', '1'],
+        ['obs_bill_payment_seq', 'bill_payment', '1'],
+        ['obs_recurring_payment_seq', 'recurring_payments', '1'],
+        ['obs_balance_hold_seq', 'balance_holds', '1'],
+        ['obs_balance_snapshot_seq', 'balance_snapshots', '1'],
+        ['obs_idempotency_key_seq', 'idempotency_keys', '1'],
+        ['obs_ledger_entry_seq', 'ledger_entries', '1']
+    ];
+    max_id bigint;
+    last bigint;
+BEGIN
+    FOR i IN 1 .. array_length(seqs, 1) LOOP
+        EXECUTE format('CREATE SEQUENCE IF NOT EXISTS %I START WITH %s INCREMENT BY 50', seqs[i][1], seqs[i][3]);
+        EXECUTE format('ALTER SEQUENCE %I INCREMENT BY 50', seqs[i][1]);
+        IF to_regclass(seqs[i][2]) IS NOT NULL THEN
+            EXECUTE format('SELECT max(id) FROM %I', seqs[i][2]) INTO max_id;
+            EXECUTE format('SELECT last_value FROM %I', seqs[i][1]) INTO last;
+            IF max_id IS NOT NULL AND max_id > last THEN
+                PERFORM setval(seqs[i][1], max_id);
+            END IF;
+        END IF;
+    END LOOP;
+END $$;
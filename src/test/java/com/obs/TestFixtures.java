@@ -0,0 +1,60 @@
+package com.obs;
+
+import java.math.BigDecimal;
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.TestComponent;
+
+import com.obs.entity.Account;
+import com.obs.entity.AccountType;
+import com.obs.entity.Role;
+import com.obs.entity.User;
+import com.obs.repository.AccountRepository;
+import com.obs.repository.UserRepository;
+
+/**
+ * Creates customers and accounts for integration tests. The embedded database is shared by every
+ * test class with the same context, so usernames and account numbers are unique per call.
+ */
+@TestComponent
+public class TestFixtures {
+
+    private static final AtomicLong SEQUENCE = new AtomicLong(System.nanoTime() % 1_000_000_000L);
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private AccountRepository accountRepository;
+
+    public User customer(String prefix) {
+        return userRepository.save(newCustomer(prefix));
+    }
+
+    public User newCustomer(String prefix) {
+        long n = SEQUENCE.incrementAndGet();
+        User user = new User();
+        user.setUsername(prefix + n);
+        user.setPassword("{noop}secret");
+        user.setEmail(prefix + n + "@example.com");
+        user.setPhoneNumber("9000000000");
+        user.setFullName("Test " + prefix);
+        user.setRoles(Set.of(Role.CUSTOMER));
+        return user;
+    }
+
+    public Account account(User owner, AccountType type, String balance) {
+        return accountRepository.save(newAccount(owner, type, balance));
+    }
+
+    public Account newAccount(User owner, AccountType type, String balance) {
+        Account account = new Account();
+        account.setAccountNumber(String.format("9%015d", SEQUENCE.incrementAndGet()));
+        account.setAccountType(type);
+        account.setBalance(new BigDecimal(balance));
+        account.setUser(owner);
+        return account;
+    }
+}
@@ -0,0 +1,168 @@
+package com.obs.controller;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.asyncDispatch;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+import java.math.BigDecimal;
+
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.security.test.context.support.WithMockUser;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+import org.springframework.test.web.servlet.RequestBuilder;
+
+import com.obs.TestFixtures;
+import com.obs.entity.Account;
+import com.obs.entity.AccountType;
+import com.obs.entity.Transaction;
+import com.obs.entity.User;
+import com.obs.payload.request.TransferRequest;
+import com.obs.repository.AccountRepository;
+import com.obs.repository.TransactionRepository;
+import com.obs.repository.UserRepository;
+import com.obs.service.TransactionService;
+
+import io.zonky.test.db.AutoConfigureEmbeddedDatabase;
+import jakarta.persistence.EntityManagerFactory;
+
+/**
+ * Pins the number of SQL statements each hot endpoint issues. The customer has several accounts,
+ * each with several postings, and the pending queue several owners, so a lazy load per row shows
+ * up as a higher count. A change in a count means a fetch plan changed: fix the plan, or update
+ * the number if the new query is intended.
+ */
+@SpringBootTest
+@AutoConfigureMockMvc
+@AutoConfigureEmbeddedDatabase(provider = AutoConfigureEmbeddedDatabase.DatabaseProvider.ZONKY)
+@Import(TestFixtures.class)
+class EndpointStatementCountTest {
+
+    private static final String CUSTOMER = "statement-count-customer";
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private TestFixtures fixtures;
+
+    @Autowired
+    private TransactionService transactionService;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private AccountRepository accountRepository;
+
+    @Autowired
+    private TransactionRepository transactionRepository;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    @BeforeEach
+    void customerWithSeveralAccounts() {
+        if (userRepository.findByUsername(CUSTOMER).isPresent()) {
+            return;
+        }
+        User customer = fixtures.newCustomer("count");
+        customer.setUsername(CUSTOMER);
+        customer = userRepository.save(customer);
+        Account target = fixtures.account(fixtures.customer("count"), AccountType.SAVINGS, "0.00");
+        for (int i = 0; i < 3; i++) {
+            Account owned = fixtures.account(customer, AccountType.SAVINGS, "50000.00");
+            for (int j = 0; j < 4; j++) {
+                transactionService.deposit(owned.getAccountNumber(), new BigDecimal("100.00"), null);
+            }
+            // Held transfers from different owners fill the pending queue
+            User other = fixtures.customer("count");
+            hold(other, fixtures.account(other, AccountType.SAVINGS, "50000.00"), target);
+            hold(customer, owned, target);
+        }
+    }
+
+    @Test
+    @WithMockUser(username = CUSTOMER, roles = "CUSTOMER")
+    void myAccounts() throws Exception {
+        assertThat(statementsFor(get("/api/accounts/my-accounts"))).isEqualTo(2);
+    }
+
+    @Test
+    @WithMockUser(username = CUSTOMER, roles = "CUSTOMER")
+    void summary() throws Exception {
+        assertThat(statementsFor(get("/api/accounts/summary").param("recent", "5"))).isEqualTo(1);
+    }
+
+    @Test
+    @WithMockUser(username = CUSTOMER, roles = "CUSTOMER")
+    void historyPage() throws Exception {
+        assertThat(statementsFor(get("/api/transactions/" + ownedAccount().getAccountNumber() + "/page").param("size", "3")))
+                .isEqualTo(1);
+    }
+
+    @Test
+    @WithMockUser(username = "statement-count-banker", roles = "BANKER")
+    void pendingQueue() throws Exception {
+        assertThat(statementsFor(get("/api/transactions/pending").param("sort", "amount"))).isEqualTo(2);
+    }
+
+    @Test
+    @WithMockUser(username = "statement-count-banker", roles = "BANKER")
+    void bankerSearch() throws Exception {
+        assertThat(statementsFor(get("/api/accounts/search").param("accountNumber", ownedAccount().getAccountNumber())))
+                .isEqualTo(2);
+    }
+
+    @Test
+    @WithMockUser(username = CUSTOMER, roles = "CUSTOMER")
+    void invoice() throws Exception {
+        Transaction posted = transactionRepository.findByAccountIdInPostingOrder(ownedAccount().getId()).get(0);
+        assertThat(statementsFor(get("/api/transactions/" + posted.getId() + "/invoice"))).isEqualTo(1);
+    }
+
+    /**
+     * Statements prepared by one request in steady state. The first call warms the account
+     * directory near-cache and the PDF cache. Statistics are global, so a scheduled job running
+     * alongside can only add statements: the least of three calls is the request's own count.
+     */
+    private long statementsFor(RequestBuilder request) throws Exception {
+        perform(request);
+        Statistics statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        long least = Long.MAX_VALUE;
+        for (int i = 0; i < 3; i++) {
+            statistics.clear();
+            perform(request);
+            least = Math.min(least, statistics.getPrepareStatementCount());
+        }
+        return least;
+    }
+
+    private void perform(RequestBuilder request) throws Exception {
+        MvcResult result = mockMvc.perform(request).andReturn();
+        if (result.getRequest().isAsyncStarted()) {
+            result = mockMvc.perform(asyncDispatch(result)).andReturn();
+        }
+        status().isOk().match(result);
+    }
+
+    private Account ownedAccount() {
+        return accountRepository.findByUser(userRepository.findByUsername(CUSTOMER).orElseThrow()).get(0);
+    }
+
+    private void hold(User owner, Account from, Account to) {
+        TransferRequest request = new TransferRequest();
+        request.setFromAccountNumber(from.getAccountNumber());
+        request.setToAccountNumber(to.getAccountNumber());
+        request.setAmount(new BigDecimal("12000.00"));
+        transactionService.transferFunds(request, owner.getUsername(), null);
+    }
+}
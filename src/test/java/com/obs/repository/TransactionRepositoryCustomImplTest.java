@@ -0,0 +1,75 @@
+package com.obs.repository;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.math.BigDecimal;
+import java.util.List;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.context.annotation.Import;
+
+import com.obs.TestFixtures;
+import com.obs.entity.Account;
+import com.obs.entity.AccountType;
+import com.obs.entity.Transaction;
+import com.obs.entity.User;
+import com.obs.payload.request.TransactionFilter;
+import com.obs.payload.request.TransferRequest;
+import com.obs.service.TransactionService;
+
+import io.zonky.test.db.AutoConfigureEmbeddedDatabase;
+
+@SpringBootTest
+@AutoConfigureEmbeddedDatabase(provider = AutoConfigureEmbeddedDatabase.DatabaseProvider.ZONKY)
+@Import(TestFixtures.class)
+class TransactionRepositoryCustomImplTest {
+
+    @Autowired
+    private TestFixtures fixtures;
+
+    @Autowired
+    private TransactionService transactionService;
+
+    @Autowired
+    private TransactionRepository transactionRepository;
+
+    @Test
+    void amountFiltersMatchDebitsAndCreditsBySize() {
+        User owner = fixtures.customer("filter");
+        Account account = fixtures.account(owner, AccountType.SAVINGS, "1000.00");
+        Account target = fixtures.account(fixtures.customer("filter"), AccountType.SAVINGS, "0.00");
+        transactionService.deposit(account.getAccountNumber(), new BigDecimal("300.00"), null);
+        TransferRequest request = new TransferRequest();
+        request.setFromAccountNumber(account.getAccountNumber());
+        request.setToAccountNumber(target.getAccountNumber());
+        request.setAmount(new BigDecimal("250.00"));
+        transactionService.transferFunds(request, owner.getUsername(), null);
+        request.setAmount(new BigDecimal("20.00"));
+        transactionService.transferFunds(request, owner.getUsername(), null);
+
+        TransactionFilter filter = new TransactionFilter();
+        filter.setMinAmount(new BigDecimal("200.00"));
+        filter.setMaxAmount(new BigDecimal("300.00"));
+
+        List<Transaction> matched = transactionRepository.findFiltered(account.getId(), filter, 10);
+        assertThat(matched).extracting(Transaction::getAmount)
+                .usingElementComparator(BigDecimal::compareTo)
+                .containsExactly(new BigDecimal("300.00"), new BigDecimal("-250.00"));
+        assertThat(transactionRepository.findSummaries(account.getId(), filter, null, null, 10)).hasSize(2);
+    }
+
+    @Test
+    void fullHistoryIsLimitedToTheLatestRowsInPostingOrder() {
+        Account account = fixtures.account(fixtures.customer("limit"), AccountType.SAVINGS, "0.00");
+        for (int i = 1; i <= 5; i++) {
+            transactionService.deposit(account.getAccountNumber(), new BigDecimal(i + ".00"), null);
+        }
+
+        assertThat(transactionRepository.findFiltered(account.getId(), new TransactionFilter(), 3))
+                .extracting(Transaction::getAmount)
+                .usingElementComparator(BigDecimal::compareTo)
+                .containsExactly(new BigDecimal("3.00"), new BigDecimal("4.00"), new BigDecimal("5.00"));
+    }
+}
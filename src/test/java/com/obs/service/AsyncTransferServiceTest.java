@@ -0,0 +1,132 @@
+package com.obs.service;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.http.ResponseEntity;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.obs.TestFixtures;
+import com.obs.entity.Account;
+import com.obs.entity.AccountType;
+import com.obs.entity.AsyncTransfer;
+import com.obs.entity.User;
+import com.obs.payload.request.TransferRequest;
+import com.obs.payload.response.TransferStatusResponse;
+import com.obs.repository.AccountRepository;
+import com.obs.repository.AsyncTransferRepository;
+
+import io.zonky.test.db.AutoConfigureEmbeddedDatabase;
+
+@SpringBootTest
+@AutoConfigureEmbeddedDatabase(provider = AutoConfigureEmbeddedDatabase.DatabaseProvider.ZONKY)
+@Import(TestFixtures.class)
+class AsyncTransferServiceTest {
+
+    @Autowired
+    private TestFixtures fixtures;
+
+    @Autowired
+    private AsyncTransferService asyncTransferService;
+
+    @Autowired
+    private IdempotencyService idempotencyService;
+
+    @Autowired
+    private AsyncTransferRepository asyncTransferRepository;
+
+    @Autowired
+    private AccountRepository accountRepository;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Test
+    void resubmittingWithTheSameKeyReturnsTheSameTransfer() throws Exception {
+        User owner = fixtures.customer("async");
+        Account from = fixtures.account(owner, AccountType.SAVINGS, "100.00");
+        Account to = fixtures.account(fixtures.customer("async"), AccountType.SAVINGS, "0.00");
+        TransferRequest request = request(from, to, "40.00");
+        String key = UUID.randomUUID().toString();
+
+        ResponseEntity<?> first = submit(owner, request, key);
+        ResponseEntity<?> second = submit(owner, request, key);
+        assertThat(first.getStatusCode().value()).isEqualTo(202);
+        assertThat(second.getStatusCode().value()).isEqualTo(202);
+        String transferId = ((TransferStatusResponse) first.getBody()).getTransferId();
+        assertThat(objectMapper.readTree((String) second.getBody()).get("transferId").asText()).isEqualTo(transferId);
+
+        TransferStatusResponse done = asyncTransferService.whenDone(transferId, owner.getUsername()).get(30, TimeUnit.SECONDS);
+        assertThat(done.getState()).isEqualTo("COMPLETED");
+        assertThat(done.getResult()).isEqualTo("SUCCESS");
+        assertThat(balance(from)).isEqualByComparingTo("60.00");
+    }
+
+    @Test
+    void storedTransfersLeftBehindAreRunExactlyOnce() throws Exception {
+        User owner = fixtures.customer("async");
+        Account from = fixtures.account(owner, AccountType.SAVINGS, "100.00");
+        Account to = fixtures.account(fixtures.customer("async"), AccountType.SAVINGS, "0.00");
+
+        // As left by a restart: accepted and stored, never run
+        AsyncTransfer lost = new AsyncTransfer();
+        lost.setId(UUID.randomUUID().toString());
+        lost.setUsername(owner.getUsername());
+        lost.setFromAccountNumber(from.getAccountNumber());
+        lost.setToAccountNumber(to.getAccountNumber());
+        lost.setAmount(new BigDecimal("25.00"));
+        lost.setState("RUNNING");
+        lost.setSubmittedAt(LocalDateTime.now().minusHours(1));
+        asyncTransferRepository.save(lost);
+
+        asyncTransferService.recoverStalled();
+        asyncTransferService.recoverStalled();
+        TransferStatusResponse done = asyncTransferService.whenDone(lost.getId(), owner.getUsername()).get(30, TimeUnit.SECONDS);
+        assertThat(done.getState()).isEqualTo("COMPLETED");
+
+        asyncTransferService.recoverStalled();
+        asyncTransferService.whenDone(lost.getId(), owner.getUsername()).get(30, TimeUnit.SECONDS);
+        assertThat(balance(from)).isEqualByComparingTo("75.00");
+        assertThat(balance(to)).isEqualByComparingTo("25.00");
+    }
+
+    @Test
+    void failedTransferIsReportedWithoutMovingMoney() throws Exception {
+        User owner = fixtures.customer("async");
+        Account from = fixtures.account(owner, AccountType.SAVINGS, "10.00");
+        Account to = fixtures.account(fixtures.customer("async"), AccountType.SAVINGS, "0.00");
+
+        TransferStatusResponse accepted = asyncTransferService.submit(request(from, to, "40.00"), owner.getUsername(), null);
+        TransferStatusResponse done = asyncTransferService.whenDone(accepted.getTransferId(), owner.getUsername()).get(30, TimeUnit.SECONDS);
+
+        assertThat(done.getState()).isEqualTo("FAILED");
+        assertThat(done.getMessage()).isEqualTo("Insufficient balance");
+        assertThat(balance(from)).isEqualByComparingTo("10.00");
+    }
+
+    private ResponseEntity<?> submit(User owner, TransferRequest request, String key) {
+        return idempotencyService.execute(key, owner.getUsername(), "transfer-async",
+                claim -> asyncTransferService.submit(request, owner.getUsername(), claim),
+                accepted -> ResponseEntity.accepted().body(accepted));
+    }
+
+    private static TransferRequest request(Account from, Account to, String amount) {
+        TransferRequest request = new TransferRequest();
+        request.setFromAccountNumber(from.getAccountNumber());
+        request.setToAccountNumber(to.getAccountNumber());
+        request.setAmount(new BigDecimal(amount));
+        return request;
+    }
+
+    private BigDecimal balance(Account account) {
+        return accountRepository.findById(account.getId()).orElseThrow().getBalance();
+    }
+}
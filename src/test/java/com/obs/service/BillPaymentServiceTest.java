@@ -0,0 +1,75 @@
+package com.obs.service;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.math.BigDecimal;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CyclicBarrier;
+import java.util.concurrent.TimeUnit;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.context.annotation.Import;
+
+import com.obs.TestFixtures;
+import com.obs.entity.Account;
+import com.obs.entity.AccountType;
+import com.obs.entity.User;
+import com.obs.payload.request.TransferRequest;
+import com.obs.repository.AccountRepository;
+
+import io.zonky.test.db.AutoConfigureEmbeddedDatabase;
+
+@SpringBootTest
+@AutoConfigureEmbeddedDatabase(provider = AutoConfigureEmbeddedDatabase.DatabaseProvider.ZONKY)
+@Import(TestFixtures.class)
+class BillPaymentServiceTest {
+
+    @Autowired
+    private TestFixtures fixtures;
+
+    @Autowired
+    private BillPaymentService billPaymentService;
+
+    @Autowired
+    private TransactionService transactionService;
+
+    @Autowired
+    private AccountRepository accountRepository;
+
+    @Test
+    void billPaymentRacingAHoldCannotOverdraw() throws Exception {
+        for (int round = 0; round < 20; round++) {
+            User owner = fixtures.customer("bill");
+            Account account = fixtures.account(owner, AccountType.SAVINGS, "20000.00");
+            Account target = fixtures.account(fixtures.customer("bill"), AccountType.SAVINGS, "0.00");
+            TransferRequest held = new TransferRequest();
+            held.setFromAccountNumber(account.getAccountNumber());
+            held.setToAccountNumber(target.getAccountNumber());
+            held.setAmount(new BigDecimal("15000.00"));
+
+            CyclicBarrier start = new CyclicBarrier(2);
+            CompletableFuture<Boolean> hold = CompletableFuture.supplyAsync(() -> succeeds(start,
+                    () -> transactionService.transferFunds(held, owner.getUsername(), null)));
+            CompletableFuture<Boolean> bill = CompletableFuture.supplyAsync(() -> succeeds(start,
+                    () -> billPaymentService.payBill(owner.getId(), account.getAccountNumber(), "Power", new BigDecimal("15000.00"), null)));
+
+            assertThat(hold.get(30, TimeUnit.SECONDS) ^ bill.get(30, TimeUnit.SECONDS)).isTrue();
+            Account reloaded = accountRepository.findById(account.getId()).orElseThrow();
+            assertThat(transactionService.getAvailableBalance(reloaded)).isEqualByComparingTo("5000.00");
+        }
+    }
+
+    private static boolean succeeds(CyclicBarrier start, Runnable action) {
+        try {
+            start.await(10, TimeUnit.SECONDS);
+            action.run();
+            return true;
+        } catch (IllegalArgumentException e) {
+            return false;
+        } catch (Exception e) {
+            throw new IllegalStateException(e);
+        }
+    }
+}
@@ -0,0 +1,121 @@
+package com.obs.service;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.http.ResponseEntity;
+
+import com.obs.TestFixtures;
+import com.obs.entity.Account;
+import com.obs.entity.AccountType;
+import com.obs.entity.User;
+import com.obs.exception.ConflictException;
+import com.obs.payload.request.TransferRequest;
+import com.obs.repository.AccountRepository;
+import com.obs.repository.IdempotencyRecordRepository;
+
+import io.zonky.test.db.AutoConfigureEmbeddedDatabase;
+
+@SpringBootTest
+@AutoConfigureEmbeddedDatabase(provider = AutoConfigureEmbeddedDatabase.DatabaseProvider.ZONKY)
+@Import(TestFixtures.class)
+class IdempotencyServiceTest {
+
+    @Autowired
+    private TestFixtures fixtures;
+
+    @Autowired
+    private IdempotencyService idempotencyService;
+
+    @Autowired
+    private TransferDispatcher transferDispatcher;
+
+    @Autowired
+    private AccountRepository accountRepository;
+
+    @Autowired
+    private IdempotencyRecordRepository idempotencyRecordRepository;
+
+    @Test
+    void concurrentRetriesWithOneKeyMoveMoneyOnce() throws Exception {
+        User owner = fixtures.customer("idem");
+        Account from = fixtures.account(owner, AccountType.SAVINGS, "1000.00");
+        Account to = fixtures.account(fixtures.customer("idem"), AccountType.SAVINGS, "0.00");
+        String key = UUID.randomUUID().toString();
+
+        ExecutorService pool = Executors.newFixedThreadPool(8);
+        List<Future<ResponseEntity<?>>> responses = new ArrayList<>();
+        for (int i = 0; i < 8; i++) {
+            responses.add(pool.submit((Callable<ResponseEntity<?>>) () -> transfer(owner, from, to, "100.00", key)));
+        }
+        int replayed = 0;
+        for (Future<ResponseEntity<?>> response : responses) {
+            assertThat(response.get().getStatusCode().value()).isEqualTo(200);
+            if (response.get().getHeaders().containsKey("Idempotent-Replayed")) {
+                replayed++;
+            }
+        }
+        pool.shutdown();
+
+        assertThat(replayed).isEqualTo(7);
+        assertThat(balance(from)).isEqualByComparingTo("900.00");
+        assertThat(balance(to)).isEqualByComparingTo("100.00");
+        assertThat(idempotencyRecordRepository.findByUsernameAndIdempotencyKey(owner.getUsername(), key))
+                .hasValueSatisfying(record -> assertThat(record.getState()).isEqualTo(IdempotencyService.COMPLETED));
+    }
+
+    @Test
+    void failedTransferDoesNotClaimTheKey() {
+        User owner = fixtures.customer("idem");
+        Account from = fixtures.account(owner, AccountType.SAVINGS, "50.00");
+        Account to = fixtures.account(fixtures.customer("idem"), AccountType.SAVINGS, "0.00");
+        String key = UUID.randomUUID().toString();
+
+        assertThatThrownBy(() -> transfer(owner, from, to, "80.00", key)).isInstanceOf(IllegalArgumentException.class);
+        assertThat(idempotencyRecordRepository.findByUsernameAndIdempotencyKey(owner.getUsername(), key)).isEmpty();
+
+        // The same key can be used once the retry is valid
+        assertThat(transfer(owner, from, to, "30.00", key).getStatusCode().value()).isEqualTo(200);
+        assertThat(balance(from)).isEqualByComparingTo("20.00");
+    }
+
+    @Test
+    void keyReusedForAnotherEndpointIsRejected() {
+        User owner = fixtures.customer("idem");
+        Account from = fixtures.account(owner, AccountType.SAVINGS, "50.00");
+        Account to = fixtures.account(fixtures.customer("idem"), AccountType.SAVINGS, "0.00");
+        String key = UUID.randomUUID().toString();
+        transfer(owner, from, to, "10.00", key);
+
+        assertThatThrownBy(() -> idempotencyService.execute(key, owner.getUsername(), "deposit",
+                claim -> "unused", result -> ResponseEntity.ok(result)))
+                .isInstanceOf(ConflictException.class);
+    }
+
+    private ResponseEntity<?> transfer(User owner, Account from, Account to, String amount, String key) {
+        TransferRequest request = new TransferRequest();
+        request.setFromAccountNumber(from.getAccountNumber());
+        request.setToAccountNumber(to.getAccountNumber());
+        request.setAmount(new BigDecimal(amount));
+        return idempotencyService.execute(key, owner.getUsername(), "transfer",
+                claim -> transferDispatcher.dispatch(request, owner.getUsername(), claim),
+                status -> ResponseEntity.ok(status));
+    }
+
+    private BigDecimal balance(Account account) {
+        return accountRepository.findById(account.getId()).orElseThrow().getBalance();
+    }
+}
@@ -0,0 +1,143 @@
+package com.obs.service;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.Supplier;
+
+import org.hibernate.Session;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.Test;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import com.obs.TestFixtures;
+import com.obs.entity.Account;
+import com.obs.entity.AccountType;
+import com.obs.entity.User;
+import com.obs.payload.request.BulkTransferLine;
+import com.obs.payload.request.BulkTransferRequest;
+import com.obs.repository.AccountRepository;
+import com.obs.repository.UserRepository;
+
+import io.zonky.test.db.AutoConfigureEmbeddedDatabase;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.EntityManagerFactory;
+import jakarta.persistence.PersistenceContext;
+
+/**
+ * Compares unbatched inserts (JDBC batch size 1) with the configured batch size of 50 for a bulk
+ * transfer and for onboarding many customers at once. Statement counts are asserted; timings are
+ * logged, since they depend on the machine.
+ */
+@SpringBootTest
+@AutoConfigureEmbeddedDatabase(provider = AutoConfigureEmbeddedDatabase.DatabaseProvider.ZONKY)
+@Import(TestFixtures.class)
+class InsertBatchingBenchmarkTest {
+
+    private static final Logger logger = LoggerFactory.getLogger(InsertBatchingBenchmarkTest.class);
+
+    private static final int ROWS = 200;
+
+    @Autowired
+    private TestFixtures fixtures;
+
+    @Autowired
+    private TransactionService transactionService;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private AccountRepository accountRepository;
+
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    @Test
+    void batchingCutsStatementsForBulkTransfers() {
+        long unbatched = measure("bulk transfer", 1, this::bulkTransfer);
+        long batched = measure("bulk transfer", 50, this::bulkTransfer);
+
+        assertThat(batched * 5).isLessThan(unbatched);
+    }
+
+    @Test
+    void batchingCutsStatementsForBulkOnboarding() {
+        long unbatched = measure("onboarding", 1, this::onboarding);
+        long batched = measure("onboarding", 50, this::onboarding);
+
+        assertThat(batched * 5).isLessThan(unbatched);
+    }
+
+    /**
+     * Runs the workload twice with the given batch size, the first time as a warm-up, and returns
+     * the statements prepared by the second run. Each workload is built by {@code setup} in the same
+     * transaction and flushed before measuring, so only the workload's own statements count.
+     */
+    private long measure(String workload, int batchSize, Supplier<Runnable> setup) {
+        runWithBatchSize(workload, batchSize, setup);
+        return runWithBatchSize(workload, batchSize, setup);
+    }
+
+    private long runWithBatchSize(String workload, int batchSize, Supplier<Runnable> setup) {
+        Statistics statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        return transactionTemplate.execute(status -> {
+            entityManager.unwrap(Session.class).setJdbcBatchSize(batchSize);
+            Runnable work = setup.get();
+            entityManager.flush();
+
+            statistics.clear();
+            long started = System.nanoTime();
+            work.run();
+            entityManager.flush();
+            long elapsedMs = (System.nanoTime() - started) / 1_000_000;
+            long statements = statistics.getPrepareStatementCount();
+            logger.info("{} of {} rows with JDBC batch size {}: {} statements, {} ms", workload, ROWS, batchSize, statements, elapsedMs);
+            return statements;
+        });
+    }
+
+    private Runnable bulkTransfer() {
+        User owner = fixtures.customer("batch");
+        Account source = fixtures.account(owner, AccountType.CURRENT, "1000000.00");
+        List<BulkTransferLine> lines = new ArrayList<>();
+        for (int i = 0; i < ROWS / 2; i++) {
+            BulkTransferLine line = new BulkTransferLine();
+            line.setToAccountNumber(fixtures.account(fixtures.customer("batch"), AccountType.SAVINGS, "0.00").getAccountNumber());
+            line.setAmount(new BigDecimal("10.00"));
+            lines.add(line);
+        }
+        BulkTransferRequest request = new BulkTransferRequest();
+        request.setFromAccountNumber(source.getAccountNumber());
+        request.setLines(lines);
+        return () -> assertThat(transactionService.bulkTransfer(request, owner.getUsername()).getSucceeded()).isEqualTo(ROWS / 2);
+    }
+
+    private Runnable onboarding() {
+        List<User> users = new ArrayList<>();
+        List<Account> accounts = new ArrayList<>();
+        for (int i = 0; i < ROWS; i++) {
+            User user = fixtures.newCustomer("onboard");
+            users.add(user);
+            accounts.add(fixtures.newAccount(user, AccountType.SAVINGS, "0.00"));
+        }
+        return () -> {
+            userRepository.saveAll(users);
+            accountRepository.saveAll(accounts);
+        };
+    }
+}
@@ -0,0 +1,106 @@
+package com.obs.service;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+
+import org.junit.jupiter.api.Test;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.core.io.ClassPathResource;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import com.itextpdf.io.font.FontProgram;
+import com.itextpdf.io.font.FontProgramFactory;
+import com.obs.TestFixtures;
+import com.obs.entity.Account;
+import com.obs.entity.AccountType;
+import com.obs.entity.Transaction;
+import com.obs.repository.TransactionRepository;
+
+import io.zonky.test.db.AutoConfigureEmbeddedDatabase;
+
+/**
+ * Invoices per second when every invoice parses the font file itself (as before the font program
+ * was shared) against the shared {@link FontProgram} the service loads once. The rates are logged,
+ * since they depend on the machine; the shared program must come out ahead.
+ */
+@SpringBootTest
+@AutoConfigureEmbeddedDatabase(provider = AutoConfigureEmbeddedDatabase.DatabaseProvider.ZONKY)
+@Import(TestFixtures.class)
+class InvoiceFontBenchmarkTest {
+
+    private static final Logger logger = LoggerFactory.getLogger(InvoiceFontBenchmarkTest.class);
+
+    private static final int INVOICES = 50;
+
+    @Autowired
+    private TestFixtures fixtures;
+
+    @Autowired
+    private PdfGenerationService pdfGenerationService;
+
+    @Autowired
+    private TransactionRepository transactionRepository;
+
+    @Test
+    void sharedFontProgramRendersInvoicesFaster() throws IOException {
+        Transaction transaction = invoiceable();
+        byte[] fontFile;
+        try (InputStream in = new ClassPathResource("fonts/DejaVuSans.ttf").getInputStream()) {
+            fontFile = in.readAllBytes();
+        }
+        Object shared = ReflectionTestUtils.getField(pdfGenerationService, "fontProgram");
+        assertThat(shared).isNotNull();
+
+        double perRequest;
+        try {
+            // Warm up, then parse the font for every invoice like the per-request createFont did
+            invoicesPerSecond(transaction, fontFile, 5);
+            perRequest = invoicesPerSecond(transaction, fontFile, INVOICES);
+        } finally {
+            ReflectionTestUtils.setField(pdfGenerationService, "fontProgram", shared);
+        }
+        invoicesPerSecond(transaction, null, 5);
+        double sharedRate = invoicesPerSecond(transaction, null, INVOICES);
+
+        logger.info("{} invoices: {} per second parsing the font per request, {} per second with the shared font program",
+                INVOICES, String.format("%.1f", perRequest), String.format("%.1f", sharedRate));
+        assertThat(sharedRate).isGreaterThan(perRequest);
+    }
+
+    /**
+     * Renders {@code count} invoices; with {@code fontFile} set, each one first gets a freshly
+     * parsed (uncached) font program, otherwise they all use the service's shared one.
+     */
+    private double invoicesPerSecond(Transaction transaction, byte[] fontFile, int count) throws IOException {
+        long started = System.nanoTime();
+        for (int i = 0; i < count; i++) {
+            if (fontFile != null) {
+                ReflectionTestUtils.setField(pdfGenerationService, "fontProgram", FontProgramFactory.createFont(fontFile, false));
+            }
+            assertThat(pdfGenerationService.generateTransactionInvoice(transaction)).isNotEmpty();
+        }
+        return count / ((System.nanoTime() - started) / 1e9);
+    }
+
+    private Transaction invoiceable() {
+        Account account = fixtures.account(fixtures.customer("font"), AccountType.SAVINGS, "100.00");
+        Transaction transaction = new Transaction();
+        transaction.setAccount(account);
+        transaction.setAmount(new BigDecimal("100.00"));
+        transaction.setType("CREDIT");
+        transaction.setTimestamp(LocalDateTime.now());
+        transaction.setDescription("Deposit");
+        transaction.setStatus("SUCCESS");
+        transaction.setBalanceAfter(new BigDecimal("100.00"));
+        transactionRepository.save(transaction);
+        return transactionRepository.findWithAccountById(transaction.getId()).orElseThrow();
+    }
+}
@@ -0,0 +1,105 @@
+package com.obs.service;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.math.BigDecimal;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import com.obs.TestFixtures;
+import com.obs.entity.Account;
+import com.obs.entity.AccountType;
+import com.obs.entity.User;
+import com.obs.payload.request.TransferRequest;
+import com.obs.repository.AccountRepository;
+import com.obs.repository.BalanceSnapshotRepository;
+
+import io.zonky.test.db.AutoConfigureEmbeddedDatabase;
+
+@SpringBootTest
+@AutoConfigureEmbeddedDatabase(provider = AutoConfigureEmbeddedDatabase.DatabaseProvider.ZONKY)
+@Import(TestFixtures.class)
+class LedgerServiceTest {
+
+    @Autowired
+    private TestFixtures fixtures;
+
+    @Autowired
+    private LedgerService ledgerService;
+
+    @Autowired
+    private TransactionService transactionService;
+
+    @Autowired
+    private AccountRepository accountRepository;
+
+    @Autowired
+    private BalanceSnapshotRepository balanceSnapshotRepository;
+
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    @Test
+    void accountBalancesAreTheSumOfTheirEntries() {
+        User owner = fixtures.customer("ledger");
+        Account from = fixtures.account(owner, AccountType.SAVINGS, "0.00");
+        Account to = fixtures.account(fixtures.customer("ledger"), AccountType.SAVINGS, "0.00");
+
+        transactionService.deposit(from.getAccountNumber(), new BigDecimal("500.00"), null);
+        TransferRequest request = new TransferRequest();
+        request.setFromAccountNumber(from.getAccountNumber());
+        request.setToAccountNumber(to.getAccountNumber());
+        request.setAmount(new BigDecimal("120.00"));
+        transactionService.transferFunds(request, owner.getUsername(), null);
+
+        assertThat(balance(from)).isEqualByComparingTo("380.00");
+        assertThat(ledgerService.getBalance(from.getAccountNumber())).isEqualByComparingTo(balance(from));
+        assertThat(ledgerService.getBalance(to.getAccountNumber())).isEqualByComparingTo(balance(to));
+    }
+
+    @Test
+    void snapshotDoesNotSkipEntriesThatCommitLate() throws Exception {
+        Account slow = fixtures.account(fixtures.customer("ledger"), AccountType.SAVINGS, "0.00");
+        Account fast = fixtures.account(fixtures.customer("ledger"), AccountType.SAVINGS, "0.00");
+
+        // The slow deposit takes its entry ids first but commits after the fast one and after a snapshot
+        CountDownLatch written = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        CompletableFuture<Void> slowDeposit = CompletableFuture.runAsync(() -> transactionTemplate.executeWithoutResult(status -> {
+            transactionService.deposit(slow.getAccountNumber(), new BigDecimal("70.00"), null);
+            written.countDown();
+            await(release);
+        }));
+        assertThat(written.await(30, TimeUnit.SECONDS)).isTrue();
+
+        transactionService.deposit(fast.getAccountNumber(), new BigDecimal("30.00"), null);
+        ledgerService.takeSnapshots();
+        release.countDown();
+        slowDeposit.get(30, TimeUnit.SECONDS);
+        ledgerService.takeSnapshots();
+
+        assertThat(ledgerService.getBalance(slow.getAccountNumber())).isEqualByComparingTo("70.00");
+        assertThat(ledgerService.getBalance(fast.getAccountNumber())).isEqualByComparingTo("30.00");
+        assertThat(balanceSnapshotRepository.findFirstByLedgerAccountOrderByWatermarkDesc(slow.getAccountNumber()))
+                .hasValueSatisfying(snapshot -> assertThat(snapshot.getBalance()).isEqualByComparingTo("70.00"));
+    }
+
+    private BigDecimal balance(Account account) {
+        return accountRepository.findById(account.getId()).orElseThrow().getBalance();
+    }
+
+    private static void await(CountDownLatch latch) {
+        try {
+            latch.await(30, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
@@ -0,0 +1,97 @@
+package com.obs.service;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.attribute.FileTime;
+import java.time.Instant;
+import java.time.temporal.ChronoUnit;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+
+class PdfCacheTest {
+
+    @TempDir
+    Path directory;
+
+    @TempDir
+    Path storeDirectory;
+
+    private PdfCache cache;
+
+    @BeforeEach
+    void createCache() throws IOException {
+        cache = new PdfCache();
+        ReflectionTestUtils.setField(cache, "meterRegistry", new SimpleMeterRegistry());
+        ReflectionTestUtils.setField(cache, "directory", directory);
+        ReflectionTestUtils.setField(cache, "memoryBudget", 1024L);
+        ReflectionTestUtils.setField(cache, "maxMemoryEntry", 1024L);
+        ReflectionTestUtils.setField(cache, "diskBudget", 0L);
+        ReflectionTestUtils.setField(cache, "storeDirectory", storeDirectory);
+        ReflectionTestUtils.setField(cache, "storeRetentionDays", 30);
+        cache.init();
+    }
+
+    @Test
+    void matchingEtagIsAnsweredWithoutGenerating() {
+        ResponseEntity<StreamingResponseBody> first = cache.serve("key", null, "a.pdf",
+                out -> out.write("pdf".getBytes(StandardCharsets.UTF_8)));
+        assertThat(first.getStatusCode()).isEqualTo(HttpStatus.OK);
+
+        ResponseEntity<StreamingResponseBody> second = cache.serve("key", first.getHeaders().getETag(), "a.pdf", out -> {
+            throw new AssertionError("regenerated");
+        });
+        assertThat(second.getStatusCode()).isEqualTo(HttpStatus.NOT_MODIFIED);
+    }
+
+    @Test
+    void trimAndClearLeaveDocumentsBeingGenerated() throws IOException {
+        Path inProgress = Files.writeString(directory.resolve("abc123.tmp"), "partial");
+        cache.serve("key", null, "a.pdf", out -> out.write("pdf".getBytes(StandardCharsets.UTF_8)));
+
+        cache.trimDisk();
+        assertThat(inProgress).exists();
+        try (var files = Files.list(directory)) {
+            assertThat(files).containsExactly(inProgress);
+        }
+
+        cache.clear();
+        assertThat(inProgress).exists();
+    }
+
+    @Test
+    void prefilledDocumentsOutliveTheCacheBudgetUntilRetentionEnds() throws IOException {
+        assertThat(cache.prefill("stored", out -> out.write("pdf".getBytes(StandardCharsets.UTF_8)))).isTrue();
+        assertThat(cache.prefill("stored", out -> {
+            throw new AssertionError("regenerated");
+        })).isFalse();
+        Path checkpoint = Files.writeString(storeDirectory.resolve("statement-batch.properties"), "month=2026-09");
+
+        cache.trimDisk();
+        ResponseEntity<StreamingResponseBody> served = cache.serve("stored", null, "s.pdf", out -> {
+            throw new AssertionError("regenerated");
+        });
+        assertThat(served.getStatusCode()).isEqualTo(HttpStatus.OK);
+
+        try (var files = Files.list(storeDirectory)) {
+            for (Path file : (Iterable<Path>) files::iterator) {
+                Files.setLastModifiedTime(file, FileTime.from(Instant.now().minus(31, ChronoUnit.DAYS)));
+            }
+        }
+        cache.trimDisk();
+        try (var files = Files.list(storeDirectory)) {
+            assertThat(files).containsExactly(checkpoint);
+        }
+    }
+}
@@ -0,0 +1,114 @@
+package com.obs.service;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDate;
+import java.time.YearMonth;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.context.annotation.Import;
+
+import com.obs.TestFixtures;
+import com.obs.entity.Account;
+import com.obs.entity.AccountType;
+import com.obs.entity.Transaction;
+import com.obs.entity.User;
+import com.obs.payload.request.TransactionFilter;
+import com.obs.repository.AccountRepository;
+import com.obs.repository.TransactionRepository;
+
+import io.zonky.test.db.AutoConfigureEmbeddedDatabase;
+
+@SpringBootTest
+@AutoConfigureEmbeddedDatabase(provider = AutoConfigureEmbeddedDatabase.DatabaseProvider.ZONKY)
+@Import(TestFixtures.class)
+class PdfGenerationServiceTest {
+
+    @Autowired
+    private TestFixtures fixtures;
+
+    @Autowired
+    private PdfGenerationService pdfGenerationService;
+
+    @Autowired
+    private TransactionService transactionService;
+
+    @Autowired
+    private AccountRepository accountRepository;
+
+    @Autowired
+    private TransactionRepository transactionRepository;
+
+    @Test
+    void closedStatementKeyHoldsTheClosingBalanceAndIgnoresLaterPostings() {
+        User owner = fixtures.customer("statement");
+        Account account = fixtures.account(owner, AccountType.SAVINGS, "500.00");
+        YearMonth lastMonth = YearMonth.now().minusMonths(1);
+        posted(account, lastMonth.atDay(10), "500.00");
+        TransactionFilter filter = new TransactionFilter();
+        filter.setFrom(lastMonth.atDay(1));
+        filter.setTo(lastMonth.atEndOfMonth());
+
+        String before = pdfGenerationService.statementCacheKey(reload(account), filter);
+        transactionService.deposit(account.getAccountNumber(), new BigDecimal("250.00"), null);
+        String after = pdfGenerationService.statementCacheKey(reload(account), filter);
+
+        assertThat(before).isNotNull().contains("|500.00|").isEqualTo(after);
+    }
+
+    @Test
+    void closedStatementEndingOnAPostingWithoutRunningBalanceIsNotCached() {
+        Account account = fixtures.account(fixtures.customer("statement"), AccountType.SAVINGS, "500.00");
+        YearMonth lastMonth = YearMonth.now().minusMonths(1);
+        posted(account, lastMonth.atDay(10), "500.00");
+        Transaction notBackfilled = transactionRepository.findByAccountIdInPostingOrder(account.getId()).get(0);
+        notBackfilled.setBalanceAfter(null);
+        transactionRepository.save(notBackfilled);
+        TransactionFilter filter = new TransactionFilter();
+        filter.setFrom(lastMonth.atDay(1));
+        filter.setTo(lastMonth.atEndOfMonth());
+
+        assertThat(pdfGenerationService.statementCacheKey(reload(account), filter)).isNull();
+    }
+
+    @Test
+    void openPeriodsAreNotCached() {
+        Account account = fixtures.account(fixtures.customer("statement"), AccountType.SAVINGS, "0.00");
+        TransactionFilter filter = new TransactionFilter();
+        filter.setFrom(LocalDate.now().withDayOfMonth(1));
+        filter.setTo(LocalDate.now());
+
+        assertThat(pdfGenerationService.statementCacheKey(reload(account), filter)).isNull();
+    }
+
+    @Test
+    void invoiceEmbedsTheBundledFont() {
+        Account account = fixtures.account(fixtures.customer("invoice"), AccountType.SAVINGS, "0.00");
+        posted(account, LocalDate.now(), "100.00");
+        Transaction transaction = transactionRepository.findByAccountIdInPostingOrder(account.getId()).get(0);
+
+        byte[] pdf = pdfGenerationService.generateTransactionInvoice(transactionRepository.findWithAccountById(transaction.getId()).orElseThrow());
+
+        assertThat(new String(pdf, StandardCharsets.ISO_8859_1)).startsWith("%PDF-").contains("DejaVuSans");
+    }
+
+    private void posted(Account account, LocalDate day, String amount) {
+        Transaction transaction = new Transaction();
+        transaction.setAccount(account);
+        transaction.setAmount(new BigDecimal(amount));
+        transaction.setType("CREDIT");
+        transaction.setTimestamp(day.atTime(12, 0));
+        transaction.setDescription("Deposit");
+        transaction.setStatus("SUCCESS");
+        transaction.setBalanceAfter(new BigDecimal(amount));
+        transactionRepository.save(transaction);
+    }
+
+    private Account reload(Account account) {
+        return accountRepository.findWithUserByAccountNumber(account.getAccountNumber()).orElseThrow();
+    }
+}
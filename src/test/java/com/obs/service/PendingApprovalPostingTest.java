@@ -0,0 +1,127 @@
+package com.obs.service;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.math.BigDecimal;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.context.annotation.Import;
+
+import com.obs.TestFixtures;
+import com.obs.entity.Account;
+import com.obs.entity.AccountType;
+import com.obs.entity.Transaction;
+import com.obs.entity.User;
+import com.obs.payload.request.TransferRequest;
+import com.obs.repository.AccountRepository;
+import com.obs.repository.TransactionRepository;
+
+import io.zonky.test.db.AutoConfigureEmbeddedDatabase;
+
+@SpringBootTest
+@AutoConfigureEmbeddedDatabase(provider = AutoConfigureEmbeddedDatabase.DatabaseProvider.ZONKY)
+@Import(TestFixtures.class)
+class PendingApprovalPostingTest {
+
+    @Autowired
+    private TestFixtures fixtures;
+
+    @Autowired
+    private TransactionService transactionService;
+
+    @Autowired
+    private RunningBalanceBackfillService backfillService;
+
+    @Autowired
+    private AccountRepository accountRepository;
+
+    @Autowired
+    private TransactionRepository transactionRepository;
+
+    @Test
+    void approvalPostsTheCaptureAfterRowsMadeWhileHeld() {
+        Account account = heldTransferWithDepositInBetween("approve");
+        Long pendingId = pendingId(account);
+
+        transactionService.approveTransaction(pendingId);
+
+        assertRunningBalancesFollowPostingOrder(account, "6000.00");
+        assertThat(transactionRepository.findById(pendingId).orElseThrow().getStatus()).isEqualTo("APPROVED");
+        assertBackfillReproducesRunningBalances(account);
+    }
+
+    @Test
+    void bulkApprovalPostsTheCaptureAfterRowsMadeWhileHeld() {
+        Account account = heldTransferWithDepositInBetween("bulk");
+
+        transactionService.bulkDecide(List.of(pendingId(account)), true);
+
+        assertRunningBalancesFollowPostingOrder(account, "6000.00");
+        assertBackfillReproducesRunningBalances(account);
+    }
+
+    @Test
+    void rejectedHoldLeavesRunningBalancesUntouched() {
+        Account account = heldTransferWithDepositInBetween("reject");
+        Long pendingId = pendingId(account);
+
+        transactionService.rejectTransaction(pendingId);
+
+        assertRunningBalancesFollowPostingOrder(account, "21000.00");
+        assertThat(transactionRepository.findById(pendingId).orElseThrow().getStatus()).isEqualTo("REJECTED");
+    }
+
+    private Account heldTransferWithDepositInBetween(String prefix) {
+        User owner = fixtures.customer(prefix);
+        Account account = fixtures.account(owner, AccountType.SAVINGS, "20000.00");
+        Account target = fixtures.account(fixtures.customer(prefix), AccountType.SAVINGS, "0.00");
+        TransferRequest request = new TransferRequest();
+        request.setFromAccountNumber(account.getAccountNumber());
+        request.setToAccountNumber(target.getAccountNumber());
+        request.setAmount(new BigDecimal("15000.00"));
+
+        assertThat(transactionService.transferFunds(request, owner.getUsername(), null)).isEqualTo("PENDING");
+        transactionService.deposit(account.getAccountNumber(), new BigDecimal("1000.00"), null);
+        return account;
+    }
+
+    private Long pendingId(Account account) {
+        return transactionRepository.findByAccountIdInPostingOrder(account.getId()).stream()
+                .filter(transaction -> "PENDING".equals(transaction.getStatus()))
+                .findFirst().orElseThrow().getId();
+    }
+
+    private void assertRunningBalancesFollowPostingOrder(Account account, String expectedBalance) {
+        List<Transaction> rows = transactionRepository.findByAccountIdInPostingOrder(account.getId());
+        BigDecimal running = new BigDecimal("20000.00");
+        for (Transaction row : rows) {
+            if ("SUCCESS".equals(row.getStatus())) {
+                running = running.add(row.getAmount());
+            }
+            assertThat(row.getBalanceAfter()).as(row.getDescription()).isEqualByComparingTo(running);
+        }
+        assertThat(running).isEqualByComparingTo(expectedBalance);
+        assertThat(accountRepository.findById(account.getId()).orElseThrow().getBalance()).isEqualByComparingTo(expectedBalance);
+    }
+
+    private void assertBackfillReproducesRunningBalances(Account account) {
+        List<Transaction> rows = transactionRepository.findByAccountIdInPostingOrder(account.getId());
+        Map<Long, BigDecimal> posted = new HashMap<>();
+        for (Transaction row : rows) {
+            posted.put(row.getId(), row.getBalanceAfter());
+            row.setBalanceAfter(null);
+        }
+        transactionRepository.saveAll(rows);
+
+        backfillService.backfill();
+
+        for (Transaction row : transactionRepository.findByAccountIdInPostingOrder(account.getId())) {
+            assertThat(row.getBalanceAfter()).as(row.getDescription()).isEqualByComparingTo(posted.get(row.getId()));
+        }
+    }
+}
@@ -0,0 +1,97 @@
+package com.obs.service;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+
+import org.hibernate.Hibernate;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import com.obs.TestFixtures;
+import com.obs.entity.Account;
+import com.obs.entity.AccountType;
+import com.obs.entity.Transaction;
+import com.obs.entity.User;
+import com.obs.payload.request.TransferRequest;
+import com.obs.payload.response.PendingCountResponse;
+
+import io.zonky.test.db.AutoConfigureEmbeddedDatabase;
+
+@SpringBootTest
+@AutoConfigureEmbeddedDatabase(provider = AutoConfigureEmbeddedDatabase.DatabaseProvider.ZONKY)
+@Import(TestFixtures.class)
+class PendingQueueTest {
+
+    @Autowired
+    private TestFixtures fixtures;
+
+    @Autowired
+    private TransactionService transactionService;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Test
+    void partialIndexesAreBuiltAndValid() {
+        List<String> valid = jdbcTemplate.queryForList(
+                "select c.relname from pg_index i join pg_class c on c.oid = i.indexrelid " +
+                        "where c.relname in ('idx_txn_pending_age', 'idx_txn_pending_size') and i.indisvalid", String.class);
+        assertThat(valid).containsExactlyInAnyOrder("idx_txn_pending_age", "idx_txn_pending_size");
+    }
+
+    @Test
+    void amountOrderPutsTheLargestTransferFirstAndTotalsArePositive() {
+        Account target = fixtures.account(fixtures.customer("queue"), AccountType.SAVINGS, "0.00");
+        Set<String> mine = Set.of(
+                hold(target, "12000.00"), hold(target, "30000.00"), hold(target, "18000.00"));
+
+        List<Transaction> queue = new ArrayList<>();
+        for (int page = 0; ; page++) {
+            List<Transaction> rows = transactionService.getPendingTransactions("amount", page, TransactionService.MAX_PAGE_SIZE);
+            if (rows.isEmpty()) {
+                break;
+            }
+            queue.addAll(rows);
+        }
+
+        BigDecimal total = BigDecimal.ZERO;
+        BigDecimal previous = null;
+        List<BigDecimal> ours = new ArrayList<>();
+        for (Transaction transaction : queue) {
+            BigDecimal size = transaction.getAmount().abs();
+            if (previous != null) {
+                assertThat(size).isLessThanOrEqualTo(previous);
+            }
+            previous = size;
+            total = total.add(size);
+            assertThat(Hibernate.isInitialized(transaction.getAccount().getUser())).isTrue();
+            if (mine.contains(transaction.getAccount().getAccountNumber())) {
+                ours.add(size);
+            }
+        }
+        assertThat(ours).usingElementComparator(BigDecimal::compareTo)
+                .containsExactly(new BigDecimal("30000.00"), new BigDecimal("18000.00"), new BigDecimal("12000.00"));
+
+        PendingCountResponse count = transactionService.countPendingTransactions();
+        assertThat(count.getCount()).isEqualTo(queue.size());
+        assertThat(count.getTotalAmount()).isEqualByComparingTo(total);
+    }
+
+    private String hold(Account target, String amount) {
+        User owner = fixtures.customer("queue");
+        Account account = fixtures.account(owner, AccountType.SAVINGS, "50000.00");
+        TransferRequest request = new TransferRequest();
+        request.setFromAccountNumber(account.getAccountNumber());
+        request.setToAccountNumber(target.getAccountNumber());
+        request.setAmount(new BigDecimal(amount));
+        assertThat(transactionService.transferFunds(request, owner.getUsername(), null)).isEqualTo("PENDING");
+        return account.getAccountNumber();
+    }
+}
@@ -0,0 +1,70 @@
+package com.obs.service;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import com.obs.TestFixtures;
+import com.obs.entity.Account;
+import com.obs.entity.AccountType;
+import com.obs.entity.User;
+import com.obs.exception.ResourceNotFoundException;
+import com.obs.exception.ServiceBusyException;
+import com.obs.payload.request.TransactionFilter;
+import com.obs.payload.response.StatementJobResponse;
+
+import io.zonky.test.db.AutoConfigureEmbeddedDatabase;
+
+@SpringBootTest
+@AutoConfigureEmbeddedDatabase(provider = AutoConfigureEmbeddedDatabase.DatabaseProvider.ZONKY)
+@Import(TestFixtures.class)
+class StatementJobServiceTest {
+
+    @Autowired
+    private TestFixtures fixtures;
+
+    @Autowired
+    private StatementJobService statementJobService;
+
+    @Test
+    void jobRendersThePdfForItsOwnerOnly() throws Exception {
+        User owner = fixtures.customer("job");
+        Account account = fixtures.account(owner, AccountType.SAVINGS, "0.00");
+
+        StatementJobResponse job = statementJobService.submit(account.getAccountNumber(), owner.getUsername(),
+                new TransactionFilter(), owner.getUsername());
+        long deadline = System.currentTimeMillis() + 30_000;
+        while (!"COMPLETED".equals(statementJobService.getStatus(job.getJobId(), owner.getUsername()).getState())
+                && System.currentTimeMillis() < deadline) {
+            Thread.sleep(20);
+        }
+
+        Path result = statementJobService.getResult(job.getJobId(), owner.getUsername());
+        assertThat(new String(Files.readAllBytes(result), 0, 5)).isEqualTo("%PDF-");
+        assertThatThrownBy(() -> statementJobService.getStatus(job.getJobId(), "someone-else"))
+                .isInstanceOf(ResourceNotFoundException.class);
+    }
+
+    @Test
+    void fullQueueRejectsNewJobs() {
+        User owner = fixtures.customer("job");
+        Account account = fixtures.account(owner, AccountType.SAVINGS, "0.00");
+        Object capacity = ReflectionTestUtils.getField(statementJobService, "queueCapacity");
+        ReflectionTestUtils.setField(statementJobService, "queueCapacity", 0);
+        try {
+            assertThatThrownBy(() -> statementJobService.submit(account.getAccountNumber(), owner.getUsername(),
+                    new TransactionFilter(), owner.getUsername()))
+                    .isInstanceOf(ServiceBusyException.class);
+        } finally {
+            ReflectionTestUtils.setField(statementJobService, "queueCapacity", capacity);
+        }
+    }
+}
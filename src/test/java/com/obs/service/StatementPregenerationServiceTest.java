@@ -0,0 +1,95 @@
+package com.obs.service;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.security.MessageDigest;
+import java.time.YearMonth;
+import java.util.HexFormat;
+import java.util.Properties;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.context.annotation.Import;
+
+import com.obs.TestFixtures;
+import com.obs.entity.Account;
+import com.obs.entity.AccountType;
+import com.obs.payload.request.TransactionFilter;
+import com.obs.repository.AccountRepository;
+
+import io.zonky.test.db.AutoConfigureEmbeddedDatabase;
+
+@SpringBootTest
+@AutoConfigureEmbeddedDatabase(provider = AutoConfigureEmbeddedDatabase.DatabaseProvider.ZONKY)
+@Import(TestFixtures.class)
+class StatementPregenerationServiceTest {
+
+    @Autowired
+    private TestFixtures fixtures;
+
+    @Autowired
+    private StatementPregenerationService pregenerationService;
+
+    @Autowired
+    private PdfGenerationService pdfGenerationService;
+
+    @Autowired
+    private PdfCache pdfCache;
+
+    @Autowired
+    private AccountRepository accountRepository;
+
+    @Test
+    void unfinishedBatchResumesAfterTheCheckpointedAccount() throws Exception {
+        Account done = fixtures.account(fixtures.customer("batch"), AccountType.SAVINGS, "0.00");
+        Account remaining = fixtures.account(fixtures.customer("batch"), AccountType.SAVINGS, "0.00");
+        YearMonth month = YearMonth.now().minusMonths(1);
+        Path checkpoint = pdfCache.getStoreDirectory().resolve("statement-batch.properties");
+        writeCheckpoint(checkpoint, month, done.getId());
+
+        pregenerationService.resumeUnfinished();
+        long deadline = System.currentTimeMillis() + 60_000;
+        while (!"complete".equals(checkpointState(checkpoint, month)) && System.currentTimeMillis() < deadline) {
+            Thread.sleep(50);
+        }
+
+        assertThat(checkpointState(checkpoint, month)).isEqualTo("complete");
+        assertThat(stored(remaining, month)).exists();
+        assertThat(stored(done, month)).doesNotExist();
+    }
+
+    private Path stored(Account account, YearMonth month) throws Exception {
+        TransactionFilter filter = new TransactionFilter();
+        filter.setFrom(month.atDay(1));
+        filter.setTo(month.atEndOfMonth());
+        Account reloaded = accountRepository.findWithUserByAccountNumber(account.getAccountNumber()).orElseThrow();
+        byte[] digest = MessageDigest.getInstance("SHA-256")
+                .digest(pdfGenerationService.statementCacheKey(reloaded, filter).getBytes(StandardCharsets.UTF_8));
+        return pdfCache.getStoreDirectory().resolve(HexFormat.of().formatHex(digest) + ".pdf");
+    }
+
+    private static void writeCheckpoint(Path file, YearMonth month, long lastAccountId) throws Exception {
+        Properties checkpoint = new Properties();
+        checkpoint.setProperty("month", month.toString());
+        checkpoint.setProperty("lastAccountId", Long.toString(lastAccountId));
+        try (OutputStream out = Files.newOutputStream(file)) {
+            checkpoint.store(out, null);
+        }
+    }
+
+    private static String checkpointState(Path file, YearMonth month) throws Exception {
+        Properties checkpoint = new Properties();
+        try (InputStream in = Files.newInputStream(file)) {
+            checkpoint.load(in);
+        }
+        boolean complete = month.toString().equals(checkpoint.getProperty("month"))
+                && Long.toString(Long.MAX_VALUE).equals(checkpoint.getProperty("lastAccountId"));
+        return complete ? "complete" : "running";
+    }
+}
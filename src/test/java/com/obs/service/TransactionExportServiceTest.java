@@ -0,0 +1,89 @@
+package com.obs.service;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.io.ByteArrayOutputStream;
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.context.annotation.Import;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.obs.TestFixtures;
+import com.obs.entity.Account;
+import com.obs.entity.AccountType;
+import com.obs.entity.Transaction;
+import com.obs.payload.request.TransactionFilter;
+import com.obs.repository.TransactionRepository;
+
+import io.zonky.test.db.AutoConfigureEmbeddedDatabase;
+
+@SpringBootTest
+@AutoConfigureEmbeddedDatabase(provider = AutoConfigureEmbeddedDatabase.DatabaseProvider.ZONKY)
+@Import(TestFixtures.class)
+class TransactionExportServiceTest {
+
+    @Autowired
+    private TestFixtures fixtures;
+
+    @Autowired
+    private TransactionExportService exportService;
+
+    @Autowired
+    private TransactionService transactionService;
+
+    @Autowired
+    private TransactionRepository transactionRepository;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Test
+    void csvQuotesSeparatorsAndNeutralisesFormulas() throws Exception {
+        Account account = fixtures.account(fixtures.customer("export"), AccountType.SAVINGS, "0.00");
+        posted(account, "=HYPERLINK(\"x\"),1");
+
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        exportService.writeCsv(account, new TransactionFilter(), out);
+
+        String[] lines = out.toString(StandardCharsets.UTF_8).split("\r\n");
+        assertThat(lines).hasSize(2);
+        assertThat(lines[0]).startsWith("transactionId,timestamp,type,amount");
+        assertThat(lines[1]).endsWith(",\"'=HYPERLINK(\"\"x\"\"),1\"");
+    }
+
+    @Test
+    void ndjsonWritesOneObjectPerRowInPostingOrder() throws Exception {
+        Account account = fixtures.account(fixtures.customer("export"), AccountType.SAVINGS, "0.00");
+        for (int i = 1; i <= 3; i++) {
+            transactionService.deposit(account.getAccountNumber(), new BigDecimal(i + "00.00"), null);
+        }
+
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        exportService.writeNdjson(account, new TransactionFilter(), out);
+
+        String[] lines = out.toString(StandardCharsets.UTF_8).split("\n");
+        assertThat(lines).hasSize(3);
+        for (int i = 0; i < 3; i++) {
+            JsonNode row = objectMapper.readTree(lines[i]);
+            assertThat(row.get("amount").decimalValue()).isEqualByComparingTo((i + 1) + "00.00");
+        }
+    }
+
+    private void posted(Account account, String description) {
+        Transaction transaction = new Transaction();
+        transaction.setAccount(account);
+        transaction.setAmount(new BigDecimal("10.00"));
+        transaction.setType("CREDIT");
+        transaction.setTimestamp(LocalDateTime.now());
+        transaction.setDescription(description);
+        transaction.setStatus("SUCCESS");
+        transaction.setBalanceAfter(new BigDecimal("10.00"));
+        transactionRepository.save(transaction);
+    }
+}
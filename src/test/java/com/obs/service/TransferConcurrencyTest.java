@@ -0,0 +1,104 @@
+package com.obs.service;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.context.annotation.Import;
+
+import com.obs.TestFixtures;
+import com.obs.entity.Account;
+import com.obs.entity.AccountType;
+import com.obs.entity.User;
+import com.obs.payload.request.TransferRequest;
+import com.obs.repository.AccountRepository;
+
+import io.zonky.test.db.AutoConfigureEmbeddedDatabase;
+
+/**
+ * Thousands of random transfers between a handful of accounts, in both directions at once. With
+ * id-ordered locking none of them may deadlock, and no money may be created or lost.
+ */
+@SpringBootTest
+@AutoConfigureEmbeddedDatabase(provider = AutoConfigureEmbeddedDatabase.DatabaseProvider.ZONKY)
+@Import(TestFixtures.class)
+class TransferConcurrencyTest {
+
+    private static final int ACCOUNTS = 6;
+    private static final int THREADS = 16;
+    private static final int TRANSFERS = 2000;
+
+    @Autowired
+    private TestFixtures fixtures;
+
+    @Autowired
+    private TransactionService transactionService;
+
+    @Autowired
+    private AccountRepository accountRepository;
+
+    @Test
+    void opposingTransfersNeitherDeadlockNorLoseMoney() throws Exception {
+        List<Account> accounts = new ArrayList<>();
+        List<String> owners = new ArrayList<>();
+        for (int i = 0; i < ACCOUNTS; i++) {
+            User owner = fixtures.customer("stress");
+            accounts.add(fixtures.account(owner, AccountType.SAVINGS, "50000.00"));
+            owners.add(owner.getUsername());
+        }
+        BigDecimal totalBefore = total(accounts);
+
+        AtomicInteger succeeded = new AtomicInteger();
+        AtomicInteger insufficient = new AtomicInteger();
+        Queue<Throwable> unexpected = new ConcurrentLinkedQueue<>();
+        ExecutorService pool = Executors.newFixedThreadPool(THREADS);
+        for (int n = 0; n < TRANSFERS; n++) {
+            pool.execute(() -> {
+                ThreadLocalRandom random = ThreadLocalRandom.current();
+                int from = random.nextInt(ACCOUNTS);
+                int to = (from + 1 + random.nextInt(ACCOUNTS - 1)) % ACCOUNTS;
+                TransferRequest request = new TransferRequest();
+                request.setFromAccountNumber(accounts.get(from).getAccountNumber());
+                request.setToAccountNumber(accounts.get(to).getAccountNumber());
+                // At or below the approval limit, so every transfer settles immediately
+                request.setAmount(BigDecimal.valueOf(random.nextInt(1, 1_000_001), 2));
+                try {
+                    transactionService.transferFunds(request, owners.get(from), null);
+                    succeeded.incrementAndGet();
+                } catch (IllegalArgumentException e) {
+                    insufficient.incrementAndGet();
+                } catch (Throwable e) {
+                    unexpected.add(e);
+                }
+            });
+        }
+        pool.shutdown();
+        assertThat(pool.awaitTermination(5, TimeUnit.MINUTES)).isTrue();
+
+        assertThat(unexpected).isEmpty();
+        assertThat(succeeded.get() + insufficient.get()).isEqualTo(TRANSFERS);
+        assertThat(succeeded.get()).isGreaterThan(TRANSFERS / 2);
+        assertThat(total(accounts)).isEqualByComparingTo(totalBefore);
+        for (Account account : accounts) {
+            assertThat(accountRepository.findById(account.getId()).orElseThrow().getBalance()).isNotNegative();
+        }
+    }
+
+    private BigDecimal total(List<Account> accounts) {
+        return accounts.stream()
+                .map(account -> accountRepository.findById(account.getId()).orElseThrow().getBalance())
+                .reduce(BigDecimal.ZERO, BigDecimal::add);
+    }
+}
@@ -0,0 +1,129 @@
+package com.obs.service;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.context.annotation.Import;
+
+import com.obs.TestFixtures;
+import com.obs.entity.Account;
+import com.obs.entity.AccountType;
+import com.obs.entity.User;
+import com.obs.payload.request.TransferRequest;
+import com.obs.repository.AccountRepository;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.zonky.test.db.AutoConfigureEmbeddedDatabase;
+
+@SpringBootTest(properties = "obs.app.transferGroupCommitWindowMs=50")
+@AutoConfigureEmbeddedDatabase(provider = AutoConfigureEmbeddedDatabase.DatabaseProvider.ZONKY)
+@Import(TestFixtures.class)
+class TransferGroupCommitterTest {
+
+    @Autowired
+    private TestFixtures fixtures;
+
+    @Autowired
+    private TransferDispatcher transferDispatcher;
+
+    @Autowired
+    private TransactionService transactionService;
+
+    @Autowired
+    private AccountRepository accountRepository;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @Test
+    void failedTransfersDoNotAbortTheirGroup() throws Exception {
+        Account target = fixtures.account(fixtures.customer("group"), AccountType.SAVINGS, "0.00");
+        List<User> owners = new ArrayList<>();
+        List<Account> sources = new ArrayList<>();
+        for (int i = 0; i < 20; i++) {
+            User owner = fixtures.customer("group");
+            owners.add(owner);
+            // Every other source cannot cover the transfer
+            sources.add(fixtures.account(owner, AccountType.SAVINGS, i % 2 == 0 ? "100.00" : "10.00"));
+        }
+
+        ExecutorService pool = Executors.newFixedThreadPool(sources.size());
+        List<CompletableFuture<String>> results = new ArrayList<>();
+        for (int i = 0; i < sources.size(); i++) {
+            TransferRequest request = new TransferRequest();
+            request.setFromAccountNumber(sources.get(i).getAccountNumber());
+            request.setToAccountNumber(target.getAccountNumber());
+            request.setAmount(new BigDecimal("50.00"));
+            String username = owners.get(i).getUsername();
+            results.add(CompletableFuture.supplyAsync(() -> transferDispatcher.dispatch(request, username, null), pool));
+        }
+
+        for (int i = 0; i < results.size(); i++) {
+            CompletableFuture<String> result = results.get(i);
+            if (i % 2 == 0) {
+                assertThat(result.get(30, TimeUnit.SECONDS)).isEqualTo("SUCCESS");
+            } else {
+                assertThat(result).failsWithin(30, TimeUnit.SECONDS)
+                        .withThrowableOfType(ExecutionException.class)
+                        .withCauseInstanceOf(IllegalArgumentException.class);
+            }
+        }
+        pool.shutdown();
+
+        assertThat(accountRepository.findById(target.getId()).orElseThrow().getBalance()).isEqualByComparingTo("500.00");
+        assertThat(meterRegistry.get("obs.transfers.group.fallbacks").counter().count()).isZero();
+        assertThat(meterRegistry.get("obs.transfers.group.size").summary().max()).isGreaterThan(1);
+    }
+
+    @Test
+    void groupsAndDirectTransfersOnSharedAccountsDoNotDeadlock() throws Exception {
+        List<Account> accounts = new ArrayList<>();
+        List<String> owners = new ArrayList<>();
+        for (int i = 0; i < 4; i++) {
+            User owner = fixtures.customer("mixed");
+            accounts.add(fixtures.account(owner, AccountType.CURRENT, "100000.00"));
+            owners.add(owner.getUsername());
+        }
+        double fallbacksBefore = meterRegistry.get("obs.transfers.group.fallbacks").counter().count();
+
+        ExecutorService pool = Executors.newFixedThreadPool(16);
+        List<CompletableFuture<String>> results = new ArrayList<>();
+        for (int i = 0; i < 400; i++) {
+            int from = ThreadLocalRandom.current().nextInt(accounts.size());
+            int to = (from + 1 + ThreadLocalRandom.current().nextInt(accounts.size() - 1)) % accounts.size();
+            TransferRequest request = new TransferRequest();
+            request.setFromAccountNumber(accounts.get(from).getAccountNumber());
+            request.setToAccountNumber(accounts.get(to).getAccountNumber());
+            request.setAmount(new BigDecimal("1.00"));
+            String username = owners.get(from);
+            // Half go through the group committer, half lock their accounts directly
+            boolean grouped = i % 2 == 0;
+            results.add(CompletableFuture.supplyAsync(() -> grouped
+                    ? transferDispatcher.dispatch(request, username, null)
+                    : transactionService.transferFunds(request, username, null), pool));
+        }
+        for (CompletableFuture<String> result : results) {
+            assertThat(result.get(60, TimeUnit.SECONDS)).isEqualTo("SUCCESS");
+        }
+        pool.shutdown();
+
+        BigDecimal total = BigDecimal.ZERO;
+        for (Account account : accounts) {
+            total = total.add(accountRepository.findById(account.getId()).orElseThrow().getBalance());
+        }
+        assertThat(total).isEqualByComparingTo("400000.00");
+        assertThat(meterRegistry.get("obs.transfers.group.fallbacks").counter().count()).isEqualTo(fallbacksBefore);
+    }
+}